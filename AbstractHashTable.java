@@ -1,93 +1,676 @@
-abstract class AbstractHashTable {
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+abstract class AbstractHashTable implements HashTable {
     protected static final int MAX_CAPACITY = 32; // regra da professora
-    protected final Node[] tabela;
-    protected final int capacidade;
+    // quantos baldes da tabela antiga migram a cada insert/contains durante um redimensionamento
+    private static final int BALDES_POR_PASSO = 4;
+    // abaixo disso o insertAll usa o laço sequencial (o custo do fork/join não compensa)
+    private static final int LIMIAR_LOTE_PARALELO = 1 << 14;
+    private static final int CHAVES_POR_TAREFA = 1 << 12;
+    // limiar sugerido para setSortedBucketThreshold (o do "treeify" do java.util.HashMap)
+    static final int LIMIAR_ORDENAR_PADRAO = 8;
+    // guarda contra cadeias longas: reconstruções seguidas antes de desistir (a carga é que é alta)
+    private static final int MAX_RECONSTRUCOES_SEGUIDAS = 4;
+    private static final SecureRandom SEMENTES = new SecureRandom();
+    // chaves sondadas juntas no insertBatch/containsBatch: cadeias em voo ao mesmo tempo
+    private static final int GRUPO_LOTE = 16;
+
+    protected Node[] tabela;
+    protected int capacidade;
     protected int tamanho;
     protected long colisoesTotais;
+    protected HashFunction funcao; // só muda quando a guarda resemeia
+
+    // modo redimensionável: fatorCarga > 0 (no modo fixo fica 0; a capacidade é limitada a 32
+    // só no construtor da disciplina)
+    private final double fatorCarga;
+    // enquanto != null há uma migração incremental em andamento: baldes [proximoBaldeMigrar, capacidadeAntiga)
+    // ainda estão na tabela antiga
+    private Node[] tabelaAntiga;
+    private int capacidadeAntiga;
+    private int proximoBaldeMigrar;
+
+    // estatísticas mantidas a cada insert (nenhuma consulta de métrica percorre cadeias):
+    // contagem[i] = chaves que pertencem ao balde i da tabela atual, inclusive as que ainda
+    // estão na tabela antiga durante uma migração
+    private int[] contagem;
+    private int baldesNaoVazios;
+    private int maxCadeia;
+    // só no modo redimensionável: contagem já na capacidade dobrada, preenchida à medida que
+    // as chaves entram ou migram; vira a "contagem" no próximo redimensionamento
+    private int[] contagemDobro;
+
+    // instrumentação opcional (null = desligada): latência por chamada e nós comparados por contains
+    private LatencyHistogram latInsercao;
+    private LatencyHistogram latBusca;
+    private LatencyHistogram sondagens;
+
+    // filtro de Bloom opcional na frente das cadeias (null = sem filtro); os parâmetros
+    // ficam guardados para remontá-lo quando a guarda troca a função
+    private BloomFilter filtro;
+    private long chavesEsperadasFiltro;
+    private double taxaFiltro;
+
+    // guarda contra cadeias longas (chaves hostis): a função ganha semente aleatória própria e,
+    // se a maior cadeia passar de expectedMaxChain(), a tabela se reconstrói com SipHash de
+    // chave aleatória. A semente inicial não é defesa: no FNV-1a e no djb2 ela só muda o valor
+    // inicial, e quais chaves colidem quase não depende dele.
+    private boolean guarda;
+    private long resemeaduras;
+
+    // reordenação da cadeia a cada contains que acha a chave (só na tabela atual: a tabela
+    // antiga da migração fica como está). Não convive com o índice ordenado.
+    private ChainPolicy politica = ChainPolicy.STATIC;
 
-    public AbstractHashTable(int capacidadeDesejada) {
+    // índice ordenado por balde: quando indices[b] != null ele contém exatamente os nós de
+    // tabela[b] (a cadeia continua existindo; ela mantém as métricas e a ordem de inserção).
+    // Busca por duplicata e contains viram busca binária. Um balde ganha índice ao passar de
+    // limiarOrdenar chaves; na migração de um redimensionamento os baldes novos só mantêm
+    // índice acima de limiarDesfazer (histerese, como 8/6 no HashMap). 0 = desligado, que é
+    // o padrão: a comparação da disciplina é com cadeias só lineares.
+    private int limiarOrdenar;
+    private int limiarDesfazer;
+    private BaldeOrdenado[] indices;        // null até o primeiro balde longo
+    private BaldeOrdenado[] indicesAntigos; // da tabela antiga, durante a migração
+
+    // chaves que chegam como char[] ou bytes UTF-8 são vistas por este CharSequence
+    // reaproveitado (os bytes decodificados no rascunho), sem criar String na consulta
+    private final VisaoChars visao = new VisaoChars();
+    private char[] rascunho = new char[64];
+
+    // rascunho dos lotes (criado no primeiro uso): hash, nó atual e resultado de cada chave do grupo
+    private int[] loteHashes;
+    private Node[] loteNos;
+    private boolean[] loteAchou;
+
+    public AbstractHashTable(int capacidadeDesejada, HashFunction funcao) {
+        if (funcao == null) throw new NullPointerException("funcao de hash nula");
         int cap = capacidadeDesejada;
         if (cap <= 0 || cap > MAX_CAPACITY) cap = MAX_CAPACITY;
         this.capacidade = cap;
         this.tabela = new Node[capacidade];
+        this.contagem = new int[capacidade];
+        this.tamanho = 0;
+        this.colisoesTotais = 0;
+        this.fatorCarga = 0.0;
+        this.funcao = funcao;
+    }
+
+    // sem o teto de 32: dobra a capacidade quando tamanho > capacidade * fatorCarga,
+    // migrando os baldes aos poucos nas chamadas seguintes (sem rehash "stop-the-world").
+    // fatorCarga = 0: capacidade fixa do tamanho pedido (como no ArenaHashTable), nunca cresce
+    public AbstractHashTable(int capacidadeInicial, double fatorCarga, HashFunction funcao) {
+        if (funcao == null) throw new NullPointerException("funcao de hash nula");
+        if (!(fatorCarga >= 0.0)) throw new IllegalArgumentException("fator de carga deve ser >= 0: " + fatorCarga);
+        int cap = capacidadeInicial;
+        if (cap <= 0) cap = MAX_CAPACITY;
+        this.capacidade = cap;
+        this.tabela = new Node[capacidade];
+        this.contagem = new int[capacidade];
+        if (fatorCarga > 0.0) this.contagemDobro = new int[capacidade * 2];
         this.tamanho = 0;
         this.colisoesTotais = 0;
+        this.fatorCarga = fatorCarga;
+        this.funcao = funcao;
+    }
+
+    // hash completo de 32 bits da estratégia; o índice do balde é obtido aqui na base (modPositivo)
+    protected final int hash(String chave) {
+        return funcao.hash(chave);
+    }
+
+    @Override
+    public final HashFunction hashFunction() { return funcao; }
+
+    // liga (zerando) ou desliga a medição por chamada de insert/contains; custa duas leituras
+    // de System.nanoTime() por operação, então os tempos totais ficam um pouco maiores
+    public final void setInstrumentation(boolean ligada) {
+        if (ligada) {
+            latInsercao = new LatencyHistogram();
+            latBusca = new LatencyHistogram();
+            sondagens = new LatencyHistogram();
+        } else {
+            latInsercao = null;
+            latBusca = null;
+            sondagens = null;
+        }
     }
 
-    protected abstract int hash(String chave);
+    public final boolean isInstrumented() { return latInsercao != null; }
+
+    // histogramas da instrumentação (null se desligada)
+    public final LatencyHistogram insertLatency() { return latInsercao; }
+    public final LatencyHistogram containsLatency() { return latBusca; }
+    public final LatencyHistogram probesPerContains() { return sondagens; }
+
+    // filtro dimensionado para chavesEsperadas com a taxa de falso positivo pedida; as chaves
+    // já presentes entram no filtro agora
+    public final void enableBloomFilter(long chavesEsperadas, double taxaFalsoPositivo) {
+        BloomFilter f = new BloomFilter(chavesEsperadas, taxaFalsoPositivo);
+        adicionarAoFiltro(f, tabela);
+        if (tabelaAntiga != null) adicionarAoFiltro(f, tabelaAntiga);
+        filtro = f;
+        chavesEsperadasFiltro = chavesEsperadas;
+        taxaFiltro = taxaFalsoPositivo;
+    }
+
+    public final void disableBloomFilter() { filtro = null; }
+
+    public final BloomFilter bloomFilter() { return filtro; }
+
+    // liga os índices ordenados nos baldes com mais de limiar chaves (LIMIAR_ORDENAR_PADRAO é
+    // um bom valor); limiar <= 0 desliga (cadeias só lineares, o padrão)
+    public final void setSortedBucketThreshold(int limiar) {
+        if (limiar > 0 && politica != ChainPolicy.STATIC) {
+            throw new IllegalStateException("indice ordenado nao combina com a politica " + politica
+                    + "; volte para STATIC antes");
+        }
+        if (limiar <= 0) {
+            limiarOrdenar = 0;
+            limiarDesfazer = 0;
+            indices = null;
+            indicesAntigos = null;
+            return;
+        }
+        limiarOrdenar = limiar;
+        limiarDesfazer = Math.max(1, limiar * 3 / 4);
+        indices = null;
+        indicesAntigos = null;
+        for (int b = 0; b < capacidade; b++) {
+            if (contarCadeia(tabela[b]) > limiarOrdenar) construirIndice(b);
+        }
+    }
+
+    public final int sortedBucketThreshold() { return limiarOrdenar; }
+
+    // a política só mexe em cadeias lineares: com o índice ordenado ligado (busca binária,
+    // sem ordem de cadeia a aproveitar) só STATIC é aceita
+    public final void setChainPolicy(ChainPolicy p) {
+        if (p == null) throw new NullPointerException("politica nula");
+        if (p != ChainPolicy.STATIC && limiarOrdenar > 0) {
+            throw new IllegalStateException("politica " + p + " nao se aplica com indice ordenado; "
+                    + "desligue com setSortedBucketThreshold(0)");
+        }
+        politica = p;
+    }
+
+    public final ChainPolicy chainPolicy() { return politica; }
+
+    // ligar troca já a semente da função por uma aleatória (a tabela é reconstruída; o layout
+    // muda, mas só a SipHash do resemear() resiste a chaves escolhidas). Desligar mantém a função atual.
+    public final void setReseedGuard(boolean ligada) {
+        if (ligada && !guarda) reconstruirCom(comSemente(funcao, SEMENTES.nextLong()));
+        guarda = ligada;
+    }
+
+    public final boolean isReseedGuardEnabled() { return guarda; }
+
+    // quantas vezes a guarda trocou a semente por causa de uma cadeia longa
+    public final long reseeds() { return resemeaduras; }
+
+    // maior cadeia aceitável com a carga atual: bolas em caixas dão máximo ~ carga +
+    // O(sqrt(carga * ln m)); a folga é larga para hash honesto nunca disparar a guarda
+    public final int expectedMaxChain() {
+        double carga = (double) tamanho / capacidade;
+        return (int) Math.ceil(carga + 4.0 * Math.sqrt(carga * Math.log(capacidade + 1.0)) + 8.0);
+    }
+
+    // quantos baldes da tabela atual têm índice ordenado
+    public final int sortedBuckets() {
+        if (indices == null) return 0;
+        int c = 0;
+        for (int b = 0; b < capacidade; b++) if (indices[b] != null) c = c + 1;
+        return c;
+    }
 
     public final void insert(String chave) {
         if (chave == null) throw new NullPointerException("chave nula");
-        int idx = hash(chave);
+        inserirMedindo(chave);
+    }
+
+    public final boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        return buscarMedindo(chave);
+    }
+
+    // Sobrecargas para chaves que não estão numa String: o texto é lido onde está. contains
+    // não aloca nada; insert só cria a String quando a chave é nova. O resultado é o mesmo
+    // da String com o mesmo texto (mesmo hash, mesma comparação).
+    @Override
+    public final void insert(CharSequence chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        inserirMedindo(chave);
+    }
+
+    @Override
+    public final void insert(char[] chars, int inicio, int tamanho) {
+        if (chars == null) throw new NullPointerException("chave nula");
+        verificarFaixa(chars.length, inicio, tamanho);
+        inserirMedindo(visao.apontar(chars, inicio, tamanho));
+    }
+
+    @Override
+    public final void insert(byte[] utf8, int inicio, int tamanho) {
+        if (utf8 == null) throw new NullPointerException("chave nula");
+        verificarFaixa(utf8.length, inicio, tamanho);
+        inserirMedindo(textoUtf8(utf8, inicio, tamanho));
+    }
+
+    @Override
+    public final boolean contains(CharSequence chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        return buscarMedindo(chave);
+    }
+
+    @Override
+    public final boolean contains(char[] chars, int inicio, int tamanho) {
+        if (chars == null) throw new NullPointerException("chave nula");
+        verificarFaixa(chars.length, inicio, tamanho);
+        return buscarMedindo(visao.apontar(chars, inicio, tamanho));
+    }
+
+    @Override
+    public final boolean contains(byte[] utf8, int inicio, int tamanho) {
+        if (utf8 == null) throw new NullPointerException("chave nula");
+        verificarFaixa(utf8.length, inicio, tamanho);
+        return buscarMedindo(textoUtf8(utf8, inicio, tamanho));
+    }
+
+    private void inserirMedindo(CharSequence chave) {
+        LatencyHistogram lat = latInsercao;
+        if (lat == null) {
+            inserir(chave);
+            return;
+        }
+        long t0 = System.nanoTime();
+        inserir(chave);
+        lat.record(System.nanoTime() - t0);
+    }
+
+    private boolean buscarMedindo(CharSequence chave) {
+        LatencyHistogram lat = latBusca;
+        if (lat == null) return contem(chave) >= 0;
+        long t0 = System.nanoTime();
+        int r = contem(chave);
+        lat.record(System.nanoTime() - t0);
+        // r >= 0: achou depois de r + 1 nós; r < 0: não achou depois de -r - 1 nós
+        sondagens.record(r >= 0 ? r + 1 : -r - 1);
+        return r >= 0;
+    }
+
+    private void inserir(CharSequence chave) {
+        inserir(chave, hashDe(chave));
+    }
+
+    // h = hashDe(chave) com a função atual
+    private void inserir(CharSequence chave, int h) {
+        // filtro diz "ausente": chave nova com certeza, dá para pular a busca por duplicata
+        boolean nova = filtro != null && !filtro.mightContain(h);
+        if (tabelaAntiga != null) {
+            migrarPasso();
+            if (!nova && contemNaAntiga(chave, h) >= 0) return; // evita duplicata ainda não migrada
+        }
+        int idx = modPositivo(h, capacidade);
         Node cabeca = tabela[idx];
+        BaldeOrdenado indice = indices == null ? null : indices[idx];
 
         if (cabeca != null) {
-            Node atual = cabeca;
-            while (atual != null) {
-                if (iguais(atual.chave, chave)) return; // evita duplicata
-                atual = atual.proximo;
+            if (indice != null) {
+                if (!nova && indice.buscar(h, chave) >= 0) return; // evita duplicata
+            } else {
+                Node atual = nova ? null : cabeca;
+                while (atual != null) {
+                    if (atual.hash == h && iguais(atual.chave, chave)) return; // evita duplicata
+                    atual = atual.proximo;
+                }
             }
             colisoesTotais = colisoesTotais + 1;
         }
 
-        Node novo = new Node(chave);
+        String texto = chave.toString(); // só aqui uma chave de char[]/bytes vira String
+        Node novo = new Node(texto, h);
         novo.proximo = cabeca;
         tabela[idx] = novo;
         tamanho = tamanho + 1;
+        registrarNovaChave(idx, h);
+        if (filtro != null) filtro.add(h);
+        if (indice != null) indice.inserir(h, texto);
+        else if (limiarOrdenar > 0 && contagem[idx] > limiarOrdenar) construirIndice(idx);
+
+        if (fatorCarga > 0.0 && tabelaAntiga == null && tamanho > capacidade * fatorCarga) {
+            iniciarRedimensionamento();
+        }
+        if (guarda && maxCadeia > 8 && maxCadeia > expectedMaxChain()) resemear(); // limite >= 9
     }
 
-    public final boolean contains(String chave) {
-        if (chave == null) throw new NullPointerException("chave nula");
-        int idx = hash(chave);
+    // nós comparados codificados no sinal: achou = nós - 1 (>= 0), não achou = -nós - 1
+    private int contem(CharSequence chave) {
+        int h = hashDe(chave);
+        BloomFilter f = filtro;
+        if (f != null && !f.mightContain(h)) {
+            f.contarNegativo();
+            if (tabelaAntiga != null) migrarPasso(); // a migração continua andando
+            return -1;
+        }
+        int r = procurar(chave, h);
+        if (f != null) {
+            if (r >= 0) f.contarVerdadeiro();
+            else f.contarFalsoPositivo();
+        }
+        return r;
+    }
+
+    private int hashDe(CharSequence chave) {
+        if (chave instanceof String) return funcao.hash((String) chave);
+        if (chave == visao) return funcao.hash(visao.chars, visao.inicio, visao.tamanho);
+        return funcao.hash(chave);
+    }
+
+    // bytes UTF-8 -> chars no rascunho, sem alocar. UTF-8 malformado fica com o decodificador
+    // do Java (cria a String) para dar as mesmas substituições por U+FFFD que new String(...)
+    private CharSequence textoUtf8(byte[] utf8, int inicio, int tamanho) {
+        if (rascunho.length < tamanho) rascunho = new char[Math.max(tamanho, rascunho.length * 2)];
+        int n = decodificarUtf8(utf8, inicio, tamanho, rascunho);
+        if (n < 0) return new String(utf8, inicio, tamanho, StandardCharsets.UTF_8);
+        return visao.apontar(rascunho, 0, n);
+    }
+
+    private int procurar(CharSequence chave, int h) {
+        int nos = 0;
+        if (tabelaAntiga != null) {
+            migrarPasso();
+            int r = contemNaAntiga(chave, h);
+            if (r >= 0) return r;
+            nos = -r - 1;
+        }
+        int idx = modPositivo(h, capacidade);
+        BaldeOrdenado indice = indices == null ? null : indices[idx];
+        if (indice != null) {
+            boolean achou = indice.buscar(h, chave) >= 0;
+            nos = nos + indice.comparacoes();
+            return achou ? nos - 1 : -nos - 1;
+        }
         Node atual = tabela[idx];
+        Node anterior = null;
+        Node anterior2 = null;
         while (atual != null) {
-            if (iguais(atual.chave, chave)) return true;
+            nos = nos + 1;
+            if (atual.hash == h && iguais(atual.chave, chave)) {
+                if (politica != ChainPolicy.STATIC) reordenar(idx, atual, anterior, anterior2);
+                return nos - 1;
+            }
+            anterior2 = anterior;
+            anterior = atual;
             atual = atual.proximo;
         }
-        return false;
+        return -nos - 1;
+    }
+
+    // no: o nó achado; anterior e anterior2: os dois antes dele na cadeia (null = não há)
+    private void reordenar(int idx, Node no, Node anterior, Node anterior2) {
+        switch (politica) {
+            case MOVE_TO_FRONT:
+                if (anterior == null) return;
+                anterior.proximo = no.proximo;
+                no.proximo = tabela[idx];
+                tabela[idx] = no;
+                return;
+            case TRANSPOSE:
+                if (anterior == null) return;
+                anterior.proximo = no.proximo;
+                no.proximo = anterior;
+                if (anterior2 == null) tabela[idx] = no;
+                else anterior2.proximo = no;
+                return;
+            case COUNT:
+                if (no.acessos < Integer.MAX_VALUE) no.acessos = no.acessos + 1;
+                if (anterior == null || anterior.acessos >= no.acessos) return;
+                // passa só pelos anteriores com menos acessos: entra logo depois do último que
+                // tem pelo menos tantos (chaves novas entram na cabeça com 0, então o primeiro
+                // com menos acessos pode estar antes de nós bem mais acessados)
+                Node antes = null;
+                for (Node p = tabela[idx]; p != no; p = p.proximo) {
+                    if (p.acessos >= no.acessos) antes = p;
+                }
+                anterior.proximo = no.proximo;
+                if (antes == null) {
+                    no.proximo = tabela[idx];
+                    tabela[idx] = no;
+                } else {
+                    no.proximo = antes.proximo;
+                    antes.proximo = no;
+                }
+                return;
+            default:
+        }
+    }
+
+    // Consulta em lote: saida[i] = contains(chaves[i]). Em grupos de GRUPO_LOTE chaves,
+    // (1) calcula todos os hashes, (2) lê todas as cabeças de balde, (3) avança as cadeias
+    // intercaladas, um nó de cada chave por rodada. As leituras de chaves diferentes não
+    // dependem umas das outras, então a CPU deixa várias faltas de cache em voo ao mesmo
+    // tempo, em vez de esperar um nó por vez como no laço de contains. Instrumentada, com
+    // migração em andamento ou com política de cadeia, cai no contains chave a chave.
+    @Override
+    public final void containsBatch(String[] chaves, boolean[] saida) {
+        int n = chaves.length;
+        if (saida.length < n) throw new IllegalArgumentException("saida menor que o lote: " + saida.length + " < " + n);
+        for (int i = 0; i < n; i++) if (chaves[i] == null) throw new NullPointerException("chave nula");
+        for (int ini = 0; ini < n; ini += GRUPO_LOTE) {
+            int qtd = Math.min(GRUPO_LOTE, n - ini);
+            if (latBusca != null || tabelaAntiga != null || politica != ChainPolicy.STATIC) {
+                for (int i = ini; i < ini + qtd; i++) saida[i] = buscarMedindo(chaves[i]);
+                continue;
+            }
+            sondarGrupo(chaves, ini, qtd, true);
+            System.arraycopy(loteAchou, 0, saida, ini, qtd);
+        }
+    }
+
+    // Inserção em lote, com o mesmo resultado do laço de insert. Por grupo: hashes primeiro,
+    // depois a busca por duplicata intercalada como no containsBatch; as chaves ausentes entram
+    // uma a uma com o hash já calculado (a cadeia acabou de ser lida e está no cache).
+    @Override
+    public final void insertBatch(String[] chaves) {
+        int n = chaves.length;
+        for (int i = 0; i < n; i++) if (chaves[i] == null) throw new NullPointerException("chave nula");
+        if (latInsercao != null) { // instrumentada: mede insert a insert
+            for (int i = 0; i < n; i++) inserirMedindo(chaves[i]);
+            return;
+        }
+        for (int ini = 0; ini < n; ini += GRUPO_LOTE) {
+            int qtd = Math.min(GRUPO_LOTE, n - ini);
+            if (tabelaAntiga != null) {
+                for (int i = ini; i < ini + qtd; i++) inserir(chaves[i]);
+                continue;
+            }
+            sondarGrupo(chaves, ini, qtd, false);
+            HashFunction f = funcao;
+            for (int i = 0; i < qtd; i++) {
+                // presente continua presente; um grupo com duplicatas internas é resolvido
+                // pela busca do próprio inserir. Se a guarda resemeou, o hash guardado é velho
+                if (loteAchou[i]) continue;
+                if (funcao == f) inserir(chaves[ini + i], loteHashes[i]);
+                else inserir(chaves[ini + i]);
+            }
+        }
+    }
+
+    // Sonda chaves[ini, ini + qtd) na tabela atual (sem migração, sem reordenação):
+    // loteAchou[i] = chave ini + i presente, loteHashes[i] = hash dela. contarFiltro = atualiza
+    // as contagens do filtro de Bloom como o contains faria.
+    private void sondarGrupo(String[] chaves, int ini, int qtd, boolean contarFiltro) {
+        if (loteHashes == null) {
+            loteHashes = new int[GRUPO_LOTE];
+            loteNos = new Node[GRUPO_LOTE];
+            loteAchou = new boolean[GRUPO_LOTE];
+        }
+        int[] hs = loteHashes;
+        Node[] nos = loteNos;
+        boolean[] achou = loteAchou;
+        HashFunction fn = funcao;
+        BloomFilter f = filtro;
+
+        // fase 1: hashes
+        for (int i = 0; i < qtd; i++) hs[i] = fn.hash(chaves[ini + i]);
+
+        // fase 2: cabeças dos baldes (índice ordenado e filtro resolvem aqui mesmo)
+        int pendentes = 0;
+        int negativos = 0;
+        for (int i = 0; i < qtd; i++) {
+            int h = hs[i];
+            achou[i] = false;
+            nos[i] = null;
+            if (f != null && !f.mightContain(h)) {
+                negativos = negativos + 1;
+                continue;
+            }
+            int idx = modPositivo(h, capacidade);
+            BaldeOrdenado indice = indices == null ? null : indices[idx];
+            if (indice != null) {
+                achou[i] = indice.buscar(h, chaves[ini + i]) >= 0;
+                continue;
+            }
+            Node cabeca = tabela[idx];
+            if (cabeca != null) {
+                nos[i] = cabeca;
+                pendentes = pendentes + 1;
+            }
+        }
+
+        // fase 3: um passo em cada cadeia ainda aberta por rodada
+        while (pendentes > 0) {
+            for (int i = 0; i < qtd; i++) {
+                Node no = nos[i];
+                if (no == null) continue;
+                if (no.hash == hs[i] && no.chave.equals(chaves[ini + i])) {
+                    achou[i] = true;
+                    no = null;
+                } else {
+                    no = no.proximo;
+                }
+                nos[i] = no;
+                if (no == null) pendentes = pendentes - 1;
+            }
+        }
+
+        if (contarFiltro && f != null) {
+            // quem passou pelo filtro e não estava é falso positivo
+            int achados = 0;
+            for (int i = 0; i < qtd; i++) if (achou[i]) achados = achados + 1;
+            for (int i = 0; i < negativos; i++) f.contarNegativo();
+            for (int i = 0; i < achados; i++) f.contarVerdadeiro();
+            for (int i = achados + negativos; i < qtd; i++) f.contarFalsoPositivo();
+        }
+    }
+
+    private static void adicionarAoFiltro(BloomFilter f, Node[] baldes) {
+        for (int i = 0; i < baldes.length; i++) {
+            for (Node no = baldes[i]; no != null; no = no.proximo) f.add(no.hash);
+        }
+    }
+
+    // Construção em lote: (1) hash de todas as chaves em paralelo, (2) particiona por balde
+    // (contagem + prefixo, preservando a ordem de entrada), (3) tarefas fork/join montam
+    // faixas disjuntas de baldes sem lock. Cada balde recebe as chaves na mesma ordem do
+    // laço sequencial, então cadeias, duplicatas e colisões saem idênticas.
+    // Só na capacidade fixa: no modo redimensionável as colisões dependem de quando cada
+    // dobra acontece (e as duplicatas da entrada não contam para a carga), e com a guarda
+    // ligada ela precisa olhar cada insert; nesses casos vale o laço de insert.
+    @Override
+    public final void insertAll(String[] chaves) {
+        int n = chaves.length;
+        for (int i = 0; i < n; i++) if (chaves[i] == null) throw new NullPointerException("chave nula");
+        // instrumentada: mede insert a insert
+        if (n < LIMIAR_LOTE_PARALELO || fatorCarga > 0.0 || guarda || latInsercao != null) {
+            for (int i = 0; i < n; i++) insert(chaves[i]);
+            return;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int[] hashes = new int[n];
+        pool.invoke(new HashearFaixa(chaves, hashes, 0, n));
+
+        // particionamento estável por balde
+        int[] inicioBalde = new int[capacidade + 1];
+        int[] baldeDe = new int[n];
+        for (int i = 0; i < n; i++) {
+            int b = modPositivo(hashes[i], capacidade);
+            baldeDe[i] = b;
+            inicioBalde[b + 1] = inicioBalde[b + 1] + 1;
+        }
+        for (int b = 0; b < capacidade; b++) inicioBalde[b + 1] = inicioBalde[b + 1] + inicioBalde[b];
+        int[] ordem = new int[n];
+        int[] proxLivre = new int[capacidade];
+        System.arraycopy(inicioBalde, 0, proxLivre, 0, capacidade);
+        for (int i = 0; i < n; i++) {
+            int b = baldeDe[i];
+            ordem[proxLivre[b]] = i;
+            proxLivre[b] = proxLivre[b] + 1;
+        }
+
+        if (limiarOrdenar > 0 && indices == null) indices = new BaldeOrdenado[capacidade];
+        long[] totais = pool.invoke(new MontarBaldes(chaves, hashes, ordem, inicioBalde, 0, capacidade));
+        tamanho = tamanho + (int) totais[0];
+        colisoesTotais = colisoesTotais + totais[1];
+        baldesNaoVazios = baldesNaoVazios + (int) totais[2];
+        if (totais[3] > maxCadeia) maxCadeia = (int) totais[3];
+        // sequencial de propósito: as tarefas escreveriam nos mesmos longs do filtro
+        if (filtro != null) for (int i = 0; i < n; i++) filtro.add(hashes[i]);
     }
 
     public final int size() { return tamanho; }
     public final int capacity() { return capacidade; }
     public final long collisionsTotal() { return colisoesTotais; }
+    public final boolean isResizable() { return fatorCarga > 0.0; }
+    public final boolean isResizing() { return tabelaAntiga != null; }
 
-    public final int[] distribution() {
-        int[] dist = new int[capacidade];
+    // inclui as chaves ainda na tabela antiga (baldes já migrados ficam null lá)
+    @Override
+    public final void forEachKey(Consumer<? super String> destino) {
         for (int i = 0; i < capacidade; i++) {
-            int c = 0;
-            Node atual = tabela[i];
-            while (atual != null) { c = c + 1; atual = atual.proximo; }
-            dist[i] = c;
+            for (Node no = tabela[i]; no != null; no = no.proximo) destino.accept(no.chave);
         }
-        return dist;
+        if (tabelaAntiga == null) return;
+        for (int i = proximoBaldeMigrar; i < capacidadeAntiga; i++) {
+            for (Node no = tabelaAntiga[i]; no != null; no = no.proximo) destino.accept(no.chave);
+        }
+    }
+
+    // termina de uma vez uma migração pendente (as métricas já são exatas durante a migração)
+    public final void completeResize() {
+        while (tabelaAntiga != null) migrarPasso();
+    }
+
+    // O(capacidade): cópia das contagens mantidas no insert
+    public final int[] distribution() {
+        return contagem.clone();
     }
 
     public final int[] collisionsPerBucket() {
-        int[] dist = distribution();
         int[] col = new int[capacidade];
         for (int i = 0; i < capacidade; i++) {
-            int v = dist[i] - 1;
+            int v = contagem[i] - 1;
             if (v < 0) v = 0;
             col[i] = v;
         }
         return col;
     }
 
+    // O(1)
     public final int maxChainLength() {
-        int max = 0;
-        for (int i = 0; i < capacidade; i++) {
-            int len = 0;
-            Node atual = tabela[i];
-            while (atual != null) { len = len + 1; atual = atual.proximo; }
-            if (len > max) max = len;
-        }
-        return max;
+        return maxCadeia;
     }
 
+    // O(1)
     public final int nonEmptyBuckets() {
-        int c = 0;
-        for (int i = 0; i < capacidade; i++) if (tabela[i] != null) c = c + 1;
-        return c;
+        return baldesNaoVazios;
     }
 
     public final double avgChainLenNonEmpty() {
@@ -96,8 +679,413 @@ abstract class AbstractHashTable {
         return ((double) tamanho) / ((double) naoVazios);
     }
 
-    private boolean iguais(String a, String b) {
-        return a.equals(b); 
+    // cadeia longa demais para a carga: SipHash com chave aleatória nova até a maior cadeia
+    // voltar ao limite (trocar só a semente da mesma função reconstruiria as mesmas colisões);
+    // se nem assim, não é ataque e a guarda se desliga
+    private void resemear() {
+        for (int t = 0; t < MAX_RECONSTRUCOES_SEGUIDAS; t++) {
+            resemeaduras = resemeaduras + 1;
+            reconstruirCom(new SipHash(SEMENTES.nextLong(), SEMENTES.nextLong()));
+            if (maxCadeia <= expectedMaxChain()) return;
+        }
+        guarda = false;
+    }
+
+    private static HashFunction comSemente(HashFunction f, long semente) {
+        try {
+            return f.withSeed(semente);
+        } catch (UnsupportedOperationException e) {
+            return new SipHash(semente, SEMENTES.nextLong()); // função sem semente: vai direto para a SipHash
+        }
+    }
+
+    // rehash completo com outra função, na mesma capacidade (termina a migração antes);
+    // os nós são recriados porque o hash guardado neles muda
+    private void reconstruirCom(HashFunction nova) {
+        completeResize();
+        Node[] velha = tabela;
+        funcao = nova;
+        tabela = new Node[capacidade];
+        contagem = new int[capacidade];
+        if (contagemDobro != null) contagemDobro = new int[capacidade * 2];
+        indices = null;
+        for (int j = 0; j < velha.length; j++) {
+            for (Node atual = velha[j]; atual != null; atual = atual.proximo) {
+                int h = funcao.hash(atual.chave);
+                int idx = modPositivo(h, capacidade);
+                Node novo = new Node(atual.chave, h);
+                novo.acessos = atual.acessos;
+                novo.proximo = tabela[idx];
+                tabela[idx] = novo;
+                contagem[idx] = contagem[idx] + 1;
+                if (contagemDobro != null) {
+                    int jd = modPositivo(h, capacidade * 2);
+                    contagemDobro[jd] = contagemDobro[jd] + 1;
+                }
+            }
+        }
+        recalcularResumo();
+        // as colisões passam a ser as do arranjo novo (cada chave além da primeira do balde)
+        colisoesTotais = tamanho - baldesNaoVazios;
+        if (limiarOrdenar > 0) {
+            for (int b = 0; b < capacidade; b++) if (contagem[b] > limiarOrdenar) construirIndice(b);
+        }
+        if (filtro != null) {
+            BloomFilter f = new BloomFilter(chavesEsperadasFiltro, taxaFiltro);
+            adicionarAoFiltro(f, tabela);
+            filtro = f;
+        }
+    }
+
+    private void iniciarRedimensionamento() {
+        tabelaAntiga = tabela;
+        capacidadeAntiga = capacidade;
+        proximoBaldeMigrar = 0;
+        capacidade = capacidade * 2;
+        tabela = new Node[capacidade];
+        indicesAntigos = indices;
+        indices = null;
+        // as contagens na capacidade nova já estão prontas; a próxima começa vazia e é
+        // preenchida pelas chaves que migram e pelas que entram durante a migração
+        contagem = contagemDobro;
+        contagemDobro = new int[capacidade * 2];
+        recalcularResumo();
+    }
+
+    private void registrarNovaChave(int idx, int h) {
+        int c = contagem[idx] + 1;
+        contagem[idx] = c;
+        if (c == 1) baldesNaoVazios = baldesNaoVazios + 1;
+        if (c > maxCadeia) maxCadeia = c;
+        if (contagemDobro != null) {
+            int j = modPositivo(h, capacidade * 2);
+            contagemDobro[j] = contagemDobro[j] + 1;
+        }
+    }
+
+    // O(capacidade), só quando a capacidade muda
+    private void recalcularResumo() {
+        int naoVazios = 0;
+        int max = 0;
+        for (int i = 0; i < capacidade; i++) {
+            int c = contagem[i];
+            if (c > 0) naoVazios = naoVazios + 1;
+            if (c > max) max = c;
+        }
+        baldesNaoVazios = naoVazios;
+        maxCadeia = max;
+    }
+
+    // move até BALDES_POR_PASSO baldes não vazios (e no máximo 10x isso em baldes vazios visitados)
+    private void migrarPasso() {
+        int movidos = 0;
+        int visitasVazias = BALDES_POR_PASSO * 10;
+        while (proximoBaldeMigrar < capacidadeAntiga && movidos < BALDES_POR_PASSO) {
+            Node atual = tabelaAntiga[proximoBaldeMigrar];
+            if (atual == null) {
+                proximoBaldeMigrar = proximoBaldeMigrar + 1;
+                visitasVazias = visitasVazias - 1;
+                if (visitasVazias == 0) break;
+                continue;
+            }
+            while (atual != null) {
+                Node prox = atual.proximo;
+                int idx = modPositivo(atual.hash, capacidade);
+                atual.proximo = tabela[idx];
+                tabela[idx] = atual;
+                if (indices != null && indices[idx] != null) indices[idx].inserir(atual.hash, atual.chave);
+                int jd = modPositivo(atual.hash, capacidade * 2);
+                contagemDobro[jd] = contagemDobro[jd] + 1;
+                atual = prox;
+            }
+            // o balde antigo i se divide entre os novos i e i + capacidadeAntiga; cada um
+            // já tem todas as suas chaves antigas e mantém índice só acima de limiarDesfazer
+            if (limiarOrdenar > 0) {
+                boolean tinhaIndice = indicesAntigos != null && indicesAntigos[proximoBaldeMigrar] != null;
+                int limiar = tinhaIndice ? limiarDesfazer : limiarOrdenar;
+                for (int k = 0; k < 2; k++) {
+                    int b = proximoBaldeMigrar + k * capacidadeAntiga;
+                    if ((indices == null || indices[b] == null) && contagem[b] > limiar) construirIndice(b);
+                }
+                if (indicesAntigos != null) indicesAntigos[proximoBaldeMigrar] = null;
+            }
+            tabelaAntiga[proximoBaldeMigrar] = null;
+            proximoBaldeMigrar = proximoBaldeMigrar + 1;
+            movidos = movidos + 1;
+        }
+        if (proximoBaldeMigrar >= capacidadeAntiga) {
+            indicesAntigos = null;
+            tabelaAntiga = null;
+            capacidadeAntiga = 0;
+            proximoBaldeMigrar = 0;
+        }
+    }
+
+    // mesma codificação de contem(): >= 0 achou, < 0 não achou (nós comparados no valor)
+    private int contemNaAntiga(CharSequence chave, int h) {
+        if (tabelaAntiga == null) return -1;
+        int idx = modPositivo(h, capacidadeAntiga);
+        if (idx < proximoBaldeMigrar) return -1; // balde já migrado
+        BaldeOrdenado indice = indicesAntigos == null ? null : indicesAntigos[idx];
+        if (indice != null) {
+            boolean achou = indice.buscar(h, chave) >= 0;
+            int nos = indice.comparacoes();
+            return achou ? nos - 1 : -nos - 1;
+        }
+        Node atual = tabelaAntiga[idx];
+        int nos = 0;
+        while (atual != null) {
+            nos = nos + 1;
+            if (atual.hash == h && iguais(atual.chave, chave)) return nos - 1;
+            atual = atual.proximo;
+        }
+        return -nos - 1;
+    }
+
+    private final class HashearFaixa extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final String[] chaves;
+        private final int[] hashes;
+        private final int ini, fim;
+
+        HashearFaixa(String[] chaves, int[] hashes, int ini, int fim) {
+            this.chaves = chaves; this.hashes = hashes; this.ini = ini; this.fim = fim;
+        }
+
+        @Override
+        protected void compute() {
+            if (fim - ini <= CHAVES_POR_TAREFA) {
+                for (int i = ini; i < fim; i++) hashes[i] = hash(chaves[i]);
+                return;
+            }
+            int meio = (ini + fim) >>> 1;
+            invokeAll(new HashearFaixa(chaves, hashes, ini, meio), new HashearFaixa(chaves, hashes, meio, fim));
+        }
+    }
+
+    // monta os baldes [baldeIni, baldeFim); devolve {inseridas, colisões, baldes que deixaram
+    // de ser vazios, maior cadeia}. contagem[b] e contagemDobro[h mod 2m] (que só pode ser b
+    // ou b + m) pertencem ao dono do balde b, então também dispensam sincronização.
+    private final class MontarBaldes extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final String[] chaves;
+        private final int[] hashes, ordem, inicioBalde;
+        private final int baldeIni, baldeFim;
+
+        MontarBaldes(String[] chaves, int[] hashes, int[] ordem, int[] inicioBalde, int baldeIni, int baldeFim) {
+            this.chaves = chaves; this.hashes = hashes; this.ordem = ordem; this.inicioBalde = inicioBalde;
+            this.baldeIni = baldeIni; this.baldeFim = baldeFim;
+        }
+
+        @Override
+        protected long[] compute() {
+            int qtdChaves = inicioBalde[baldeFim] - inicioBalde[baldeIni];
+            if (baldeFim - baldeIni == 1 || qtdChaves <= CHAVES_POR_TAREFA) {
+                long inseridas = 0, colisoes = 0, novosNaoVazios = 0, max = 0;
+                for (int b = baldeIni; b < baldeFim; b++) {
+                    boolean eraVazio = contagem[b] == 0;
+                    BaldeOrdenado indice = indices == null ? null : indices[b]; // slot só deste dono
+                    for (int p = inicioBalde[b]; p < inicioBalde[b + 1]; p++) {
+                        int i = ordem[p];
+                        String chave = chaves[i];
+                        int h = hashes[i];
+                        Node cabeca = tabela[b];
+                        boolean duplicada = false;
+                        if (indice != null) {
+                            duplicada = indice.buscar(h, chave) >= 0;
+                        } else {
+                            for (Node atual = cabeca; atual != null; atual = atual.proximo) {
+                                if (atual.hash == h && iguais(atual.chave, chave)) { duplicada = true; break; }
+                            }
+                        }
+                        if (duplicada) continue;
+                        if (cabeca != null) colisoes++;
+                        Node novo = new Node(chave, h);
+                        novo.proximo = cabeca;
+                        tabela[b] = novo;
+                        inseridas++;
+                        contagem[b] = contagem[b] + 1;
+                        if (indice != null) {
+                            indice.inserir(h, chave);
+                        } else if (limiarOrdenar > 0 && contagem[b] > limiarOrdenar) {
+                            indice = BaldeOrdenado.deCadeia(tabela[b]);
+                            indices[b] = indice;
+                        }
+                        if (contagemDobro != null) {
+                            int j = modPositivo(h, capacidade * 2);
+                            contagemDobro[j] = contagemDobro[j] + 1;
+                        }
+                    }
+                    if (eraVazio && contagem[b] > 0) novosNaoVazios++;
+                    if (contagem[b] > max) max = contagem[b];
+                }
+                return new long[] { inseridas, colisoes, novosNaoVazios, max };
+            }
+            int meio = (baldeIni + baldeFim) >>> 1;
+            MontarBaldes esq = new MontarBaldes(chaves, hashes, ordem, inicioBalde, baldeIni, meio);
+            esq.fork();
+            long[] dir = new MontarBaldes(chaves, hashes, ordem, inicioBalde, meio, baldeFim).compute();
+            long[] e = esq.join();
+            return new long[] { e[0] + dir[0], e[1] + dir[1], e[2] + dir[2], Math.max(e[3], dir[3]) };
+        }
+    }
+
+    private void construirIndice(int b) {
+        if (indices == null) indices = new BaldeOrdenado[capacidade];
+        indices[b] = BaldeOrdenado.deCadeia(tabela[b]);
+    }
+
+    private static int contarCadeia(Node no) {
+        int c = 0;
+        for (; no != null; no = no.proximo) c = c + 1;
+        return c;
+    }
+
+    // (hash, chave) em ordem crescente em vetores paralelos; inserção desloca com arraycopy
+    // (cadeias de centenas de nós: o deslocamento custa menos que percorrer a cadeia)
+    private static final class BaldeOrdenado {
+        private int[] hashes;
+        private String[] chaves;
+        private int n;
+        private int comparadas; // da última busca
+
+        static BaldeOrdenado deCadeia(Node cabeca) {
+            int qtd = contarCadeia(cabeca);
+            BaldeOrdenado r = new BaldeOrdenado();
+            r.hashes = new int[Math.max(16, qtd * 2)];
+            r.chaves = new String[r.hashes.length];
+            for (Node no = cabeca; no != null; no = no.proximo) {
+                int p = r.buscar(no.hash, no.chave);
+                if (p < 0) r.inserirEm(-p - 1, no.hash, no.chave);
+            }
+            return r;
+        }
+
+        // posição se achou, senão -(ponto de inserção) - 1
+        int buscar(int h, CharSequence chave) {
+            int lo = 0, hi = n - 1;
+            comparadas = 0;
+            while (lo <= hi) {
+                comparadas = comparadas + 1;
+                int meio = (lo + hi) >>> 1;
+                int c = Integer.compare(hashes[meio], h);
+                if (c == 0) c = comparar(chaves[meio], chave);
+                if (c < 0) lo = meio + 1;
+                else if (c > 0) hi = meio - 1;
+                else return meio;
+            }
+            return -lo - 1;
+        }
+
+        // a chave ainda não está no índice
+        void inserir(int h, String chave) {
+            int p = buscar(h, chave);
+            if (p < 0) inserirEm(-p - 1, h, chave);
+        }
+
+        // entradas comparadas pela última busca (para o histograma de nós sondados)
+        int comparacoes() {
+            return comparadas;
+        }
+
+        private void inserirEm(int p, int h, String chave) {
+            if (n == hashes.length) {
+                hashes = Arrays.copyOf(hashes, n * 2);
+                chaves = Arrays.copyOf(chaves, n * 2);
+            }
+            System.arraycopy(hashes, p, hashes, p + 1, n - p);
+            System.arraycopy(chaves, p, chaves, p + 1, n - p);
+            hashes[p] = h;
+            chaves[p] = chave;
+            n = n + 1;
+        }
+    }
+
+    private boolean iguais(String a, CharSequence b) {
+        return a.contentEquals(b);
+    }
+
+    // mesma ordem de String.compareTo (chars UTF-16, depois o comprimento)
+    private static int comparar(String a, CharSequence b) {
+        if (b instanceof String) return a.compareTo((String) b);
+        int n = Math.min(a.length(), b.length());
+        for (int i = 0; i < n; i++) {
+            int c = a.charAt(i) - b.charAt(i);
+            if (c != 0) return c;
+        }
+        return a.length() - b.length();
+    }
+
+    private static void verificarFaixa(int comprimento, int inicio, int tamanho) {
+        if (inicio < 0 || tamanho < 0 || inicio > comprimento - tamanho) {
+            throw new IndexOutOfBoundsException("faixa invalida: inicio=" + inicio + ", tamanho=" + tamanho
+                    + ", comprimento=" + comprimento);
+        }
+    }
+
+    // UTF-8 estrito -> UTF-16 em destino (que cabe: nunca há mais chars que bytes); devolve
+    // quantos chars, ou -1 se a sequência for malformada (truncada, longa demais, surrogate
+    // codificado ou acima de U+10FFFF)
+    private static int decodificarUtf8(byte[] b, int inicio, int tamanho, char[] destino) {
+        int n = 0;
+        int i = inicio;
+        int fim = inicio + tamanho;
+        while (i < fim) {
+            int c = b[i];
+            if (c >= 0) { // ASCII
+                destino[n++] = (char) c;
+                i = i + 1;
+                continue;
+            }
+            c = c & 0xFF;
+            int extras, cp;
+            if (c >= 0xC2 && c <= 0xDF) { extras = 1; cp = c & 0x1F; }
+            else if (c >= 0xE0 && c <= 0xEF) { extras = 2; cp = c & 0x0F; }
+            else if (c >= 0xF0 && c <= 0xF4) { extras = 3; cp = c & 0x07; }
+            else return -1;
+            if (fim - i <= extras) return -1;
+            for (int k = 1; k <= extras; k++) {
+                int cont = b[i + k] & 0xFF;
+                if ((cont & 0xC0) != 0x80) return -1;
+                cp = (cp << 6) | (cont & 0x3F);
+            }
+            if (extras == 2 && (cp < 0x800 || (cp >= 0xD800 && cp <= 0xDFFF))) return -1;
+            if (extras == 3 && (cp < 0x10000 || cp > 0x10FFFF)) return -1;
+            if (cp >= 0x10000) {
+                destino[n++] = Character.highSurrogate(cp);
+                destino[n++] = Character.lowSurrogate(cp);
+            } else {
+                destino[n++] = (char) cp;
+            }
+            i = i + 1 + extras;
+        }
+        return n;
+    }
+
+    // CharSequence sobre uma fatia de char[]; uma por tabela, reapontada a cada chamada
+    // (a tabela já não é segura para várias threads)
+    private static final class VisaoChars implements CharSequence {
+        private char[] chars;
+        private int inicio;
+        private int tamanho;
+
+        VisaoChars apontar(char[] chars, int inicio, int tamanho) {
+            this.chars = chars;
+            this.inicio = inicio;
+            this.tamanho = tamanho;
+            return this;
+        }
+
+        @Override public int length() { return tamanho; }
+        @Override public char charAt(int i) { return chars[inicio + i]; }
+
+        @Override
+        public CharSequence subSequence(int de, int ate) {
+            return new String(chars, inicio + de, ate - de);
+        }
+
+        @Override
+        public String toString() { return new String(chars, inicio, tamanho); }
     }
 
     
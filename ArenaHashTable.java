@@ -0,0 +1,274 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Encadeamento separado sem nenhum objeto por entrada: as chaves ficam em UTF-8, uma atrás
+// da outra, num único byte[] (a "arena"), e as cadeias são índices int em vetores paralelos.
+// Custo por entrada: 12 bytes (início, hash, próximo) + os bytes da chave; o tamanho da
+// chave i é inicio[i + 1] - inicio[i]. O contains compara a String consultada direto com
+// os bytes da arena, codificando em UTF-8 caractere a caractere, sem alocar. Surrogate solto
+// (String que não é UTF-16 válido) vira os 3 bytes do próprio valor, como no WTF-8: nada se
+// perde e "a\uD800" não se confunde com "a?".
+final class ArenaHashTable implements HashTable {
+    private static final int FIM = -1;
+
+    private int[] cabecas;   // por balde: índice da primeira entrada ou FIM
+    private int capacidade;
+    private final double fatorCarga; // 0 = número de baldes fixo
+    private final HashFunction funcao;
+
+    private int[] inicio;    // por entrada: deslocamento na arena (inicio[tamanho] = uso da arena)
+    private int[] hashes;
+    private int[] proximo;
+    private byte[] arena;
+    private int tamanho;
+    private long colisoesTotais;
+
+    // número de baldes fixo (sem o teto de 32: a ideia é caber dicionários enormes)
+    public ArenaHashTable(int capacidade) {
+        this(capacidade, 0.0);
+    }
+
+    // fatorCarga > 0: reencadeia com o dobro de baldes ao passar do fator (só mexe em int[])
+    public ArenaHashTable(int capacidadeInicial, double fatorCarga) {
+        this(capacidadeInicial, fatorCarga, new Fnv1aHash());
+    }
+
+    public ArenaHashTable(int capacidadeInicial, double fatorCarga, HashFunction funcao) {
+        if (funcao == null) throw new NullPointerException("funcao de hash nula");
+        if (fatorCarga < 0.0) throw new IllegalArgumentException("fator de carga negativo: " + fatorCarga);
+        int cap = capacidadeInicial;
+        if (cap <= 0) cap = AbstractHashTable.MAX_CAPACITY;
+        this.capacidade = cap;
+        this.fatorCarga = fatorCarga;
+        this.funcao = funcao;
+        this.cabecas = new int[cap];
+        Arrays.fill(cabecas, FIM);
+        this.inicio = new int[17];
+        this.hashes = new int[16];
+        this.proximo = new int[16];
+        this.arena = new byte[256];
+    }
+
+    @Override
+    public void insert(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = funcao.hash(chave);
+        int idx = indice(h);
+        int cabeca = cabecas[idx];
+
+        if (cabeca != FIM) {
+            for (int e = cabeca; e != FIM; e = proximo[e]) {
+                if (hashes[e] == h && iguais(e, chave)) return; // evita duplicata
+            }
+            colisoesTotais = colisoesTotais + 1;
+        }
+
+        int e = tamanho;
+        garantirEntradas(e + 1);
+        int fimArena = escreverUtf8(chave, inicio[e]);
+        inicio[e + 1] = fimArena;
+        hashes[e] = h;
+        proximo[e] = cabeca;
+        cabecas[idx] = e;
+        tamanho = tamanho + 1;
+
+        if (fatorCarga > 0.0 && tamanho > capacidade * fatorCarga) reencadear(capacidade * 2);
+    }
+
+    @Override
+    public boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = funcao.hash(chave);
+        for (int e = cabecas[indice(h)]; e != FIM; e = proximo[e]) {
+            if (hashes[e] == h && iguais(e, chave)) return true;
+        }
+        return false;
+    }
+
+    @Override public int size() { return tamanho; }
+    @Override public int capacity() { return capacidade; }
+    @Override public long collisionsTotal() { return colisoesTotais; }
+    @Override public HashFunction hashFunction() { return funcao; }
+
+    // decodifica cada chave da arena (aloca uma String por chave)
+    @Override
+    public void forEachKey(Consumer<? super String> destino) {
+        for (int e = 0; e < tamanho; e++) destino.accept(decodificar(e));
+    }
+
+    @Override
+    public int[] distribution() {
+        int[] dist = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            int c = 0;
+            for (int e = cabecas[i]; e != FIM; e = proximo[e]) c = c + 1;
+            dist[i] = c;
+        }
+        return dist;
+    }
+
+    @Override
+    public int[] collisionsPerBucket() {
+        int[] dist = distribution();
+        int[] col = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            int v = dist[i] - 1;
+            if (v < 0) v = 0;
+            col[i] = v;
+        }
+        return col;
+    }
+
+    @Override
+    public int maxChainLength() {
+        int[] dist = distribution();
+        int max = 0;
+        for (int i = 0; i < capacidade; i++) if (dist[i] > max) max = dist[i];
+        return max;
+    }
+
+    @Override
+    public int nonEmptyBuckets() {
+        int c = 0;
+        for (int i = 0; i < capacidade; i++) if (cabecas[i] != FIM) c = c + 1;
+        return c;
+    }
+
+    @Override
+    public double avgChainLenNonEmpty() {
+        int naoVazios = nonEmptyBuckets();
+        if (naoVazios == 0) return 0.0;
+        return ((double) tamanho) / ((double) naoVazios);
+    }
+
+    // compara a entrada e com a String, codificando a String em UTF-8 no caminho
+    private boolean iguais(int e, String chave) {
+        int p = inicio[e];
+        int fim = inicio[e + 1];
+        int n = chave.length();
+        for (int i = 0; i < n; i++) {
+            int c = chave.charAt(i);
+            if (c < 0x80) {
+                if (p >= fim || arena[p] != (byte) c) return false;
+                p = p + 1;
+                continue;
+            }
+            if (Character.isHighSurrogate((char) c) && i + 1 < n && Character.isLowSurrogate(chave.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, chave.charAt(i + 1));
+                i = i + 1;
+            } // surrogate solto: fica com o próprio valor (3 bytes), como na escrita
+            int len = bytesUtf8(c);
+            if (p + len > fim) return false;
+            for (int k = 0; k < len; k++) {
+                if (arena[p + k] != byteUtf8(c, len, k)) return false;
+            }
+            p = p + len;
+        }
+        return p == fim;
+    }
+
+    // grava a chave em UTF-8 a partir de pos e devolve a posição final
+    private int escreverUtf8(String chave, int pos) {
+        int n = chave.length();
+        garantirArena((long) pos + 3L * n); // pior caso: 3 bytes por char
+        for (int i = 0; i < n; i++) {
+            int c = chave.charAt(i);
+            if (c < 0x80) {
+                arena[pos] = (byte) c;
+                pos = pos + 1;
+                continue;
+            }
+            if (Character.isHighSurrogate((char) c) && i + 1 < n && Character.isLowSurrogate(chave.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, chave.charAt(i + 1));
+                i = i + 1;
+            } // surrogate solto: codificado como se fosse um caractere comum (WTF-8)
+            int len = bytesUtf8(c);
+            for (int k = 0; k < len; k++) arena[pos + k] = byteUtf8(c, len, k);
+            pos = pos + len;
+        }
+        return pos;
+    }
+
+    // à mão porque o decodificador UTF-8 do JDK trocaria os surrogates soltos por U+FFFD;
+    // a arena só tem o que escreverUtf8 gravou, então não há o que validar
+    private String decodificar(int e) {
+        int p = inicio[e];
+        int fim = inicio[e + 1];
+        char[] c = new char[fim - p]; // nunca há mais chars que bytes
+        int n = 0;
+        while (p < fim) {
+            int b = arena[p] & 0xFF;
+            int cp;
+            if (b < 0x80) {
+                cp = b;
+                p = p + 1;
+            } else if (b < 0xE0) {
+                cp = (b & 0x1F) << 6 | (arena[p + 1] & 0x3F);
+                p = p + 2;
+            } else if (b < 0xF0) {
+                cp = (b & 0x0F) << 12 | (arena[p + 1] & 0x3F) << 6 | (arena[p + 2] & 0x3F);
+                p = p + 3;
+            } else {
+                cp = (b & 0x07) << 18 | (arena[p + 1] & 0x3F) << 12 | (arena[p + 2] & 0x3F) << 6 | (arena[p + 3] & 0x3F);
+                p = p + 4;
+            }
+            if (cp >= 0x10000) {
+                c[n++] = Character.highSurrogate(cp);
+                c[n++] = Character.lowSurrogate(cp);
+            } else {
+                c[n++] = (char) cp;
+            }
+        }
+        return new String(c, 0, n);
+    }
+
+    private static int bytesUtf8(int c) {
+        if (c < 0x80) return 1;
+        if (c < 0x800) return 2;
+        if (c < 0x10000) return 3;
+        return 4;
+    }
+
+    // k-ésimo byte da codificação UTF-8 de c (len = bytesUtf8(c))
+    private static byte byteUtf8(int c, int len, int k) {
+        if (len == 1) return (byte) c;
+        int resto = len - 1 - k; // quantos blocos de 6 bits vêm depois deste byte
+        if (k == 0) {
+            int prefixo = len == 2 ? 0xC0 : (len == 3 ? 0xE0 : 0xF0);
+            return (byte) (prefixo | (c >>> (6 * resto)));
+        }
+        return (byte) (0x80 | ((c >>> (6 * resto)) & 0x3F));
+    }
+
+    private void reencadear(int novaCapacidade) {
+        capacidade = novaCapacidade;
+        cabecas = new int[novaCapacidade];
+        Arrays.fill(cabecas, FIM);
+        for (int e = 0; e < tamanho; e++) {
+            int idx = indice(hashes[e]);
+            proximo[e] = cabecas[idx];
+            cabecas[idx] = e;
+        }
+    }
+
+    private void garantirEntradas(int n) {
+        if (n <= hashes.length) return;
+        int cap = Math.max(n, hashes.length * 2);
+        hashes = Arrays.copyOf(hashes, cap);
+        proximo = Arrays.copyOf(proximo, cap);
+        inicio = Arrays.copyOf(inicio, cap + 1);
+    }
+
+    private void garantirArena(long precisa) {
+        if (precisa <= arena.length) return;
+        if (precisa > Integer.MAX_VALUE - 8) throw new IllegalStateException("arena cheia (limite de 2 GiB)");
+        long cap = Math.max(precisa, Math.min((long) arena.length * 2, Integer.MAX_VALUE - 8));
+        arena = Arrays.copyOf(arena, (int) cap);
+    }
+
+    private int indice(int h) {
+        int r = h % capacidade;
+        if (r < 0) r = r + capacidade;
+        return r;
+    }
+}
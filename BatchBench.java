@@ -0,0 +1,185 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Caminho chave a chave (insert/contains) x caminho em lote (insertBatch/containsBatch) com a
+// carga do Main.medirBusca: blocos de 500 presentes (stride 7 sobre o dataset, continuando de
+// um bloco para o outro) + 500 ausentes "__NAO_EXISTE__" + i, entregues em lotes de --lote
+// chaves, como um handler que recebe centenas de pedidos de uma vez. Vazão = mediana de
+// --repeticoes passadas; o ganho do lote só aparece quando as cadeias não cabem no cache.
+//
+// Uso: java BatchBench [--datasets=female_names.txt,sintetico:1000000] [--capacidades=32,auto]
+//          [--tabelas=HashTable1,HashTable2,chained:xxhash64] [--consultas=2000000]
+//          [--lote=256] [--repeticoes=5] [--csv=lote.csv]
+//
+// dataset como no Bench; capacidade "auto" = modo redimensionável (inicial 32, fator de carga 0.75)
+public final class BatchBench {
+    private static final String PREFIXO_AUSENTE = "__NAO_EXISTE__";
+    private static volatile long sumidouro;
+
+    private BatchBench() {}
+
+    public static void main(String[] args) throws Exception {
+        String padrao = new File("src/female_names.txt").exists() ? "src/female_names.txt" : "female_names.txt";
+        String[] datasets = { padrao, "sintetico:1000000" };
+        String[] capacidades = { "32", "auto" };
+        String[] tabelas = { "HashTable1", "HashTable2", "chained:xxhash64" };
+        int consultas = 2_000_000;
+        int lote = 256;
+        int repeticoes = 5;
+        String csv = "lote.csv";
+
+        for (String a : args) {
+            if (a.startsWith("--datasets=")) datasets = valor(a).split(",");
+            else if (a.startsWith("--capacidades=")) capacidades = valor(a).split(",");
+            else if (a.startsWith("--tabelas=")) tabelas = valor(a).split(",");
+            else if (a.startsWith("--consultas=")) consultas = Integer.parseInt(valor(a));
+            else if (a.startsWith("--lote=")) lote = Integer.parseInt(valor(a));
+            else if (a.startsWith("--repeticoes=")) repeticoes = Integer.parseInt(valor(a));
+            else if (a.startsWith("--csv=")) csv = valor(a);
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+        if (lote < 1) throw new IllegalArgumentException("lote deve ser >= 1: " + lote);
+        if (repeticoes < 1) throw new IllegalArgumentException("repeticoes deve ser >= 1: " + repeticoes);
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8)) {
+            String cabecalho = "dataset,capacidade,tabela,lote,consultas,insert_ops_s,insert_lote_ops_s,"
+                    + "contains_ops_s,contains_lote_ops_s,ganho_contains";
+            out.write(cabecalho);
+            out.write('\n');
+            System.out.println(cabecalho);
+
+            for (String dataset : datasets) {
+                String[] chaves = Bench.carregarDataset(dataset);
+                String[] carga = cargaMedirBusca(chaves, consultas);
+                for (String cap : capacidades) {
+                    for (String tipo : tabelas) {
+                        novaTabela(tipo, cap); // valida o nome antes de medir
+                        // aquecimento: uma passada de cada caminho, para o JIT
+                        HashTable aquecida = montar(tipo, cap, chaves, lote, false);
+                        medirConsultas(aquecida, carga, lote, false);
+                        medirConsultas(aquecida, carga, lote, true);
+                        montar(tipo, cap, chaves, lote, true);
+
+                        double[] ins = new double[repeticoes];
+                        double[] insLote = new double[repeticoes];
+                        double[] busca = new double[repeticoes];
+                        double[] buscaLote = new double[repeticoes];
+                        HashTable t = null;
+                        for (int r = 0; r < repeticoes; r++) {
+                            long t0 = System.nanoTime();
+                            montar(tipo, cap, chaves, lote, false);
+                            long t1 = System.nanoTime();
+                            t = montar(tipo, cap, chaves, lote, true);
+                            long t2 = System.nanoTime();
+                            ins[r] = opsPorSegundo(chaves.length, t1 - t0);
+                            insLote[r] = opsPorSegundo(chaves.length, t2 - t1);
+                        }
+                        for (int r = 0; r < repeticoes; r++) {
+                            busca[r] = medirConsultas(t, carga, lote, false);
+                            buscaLote[r] = medirConsultas(t, carga, lote, true);
+                        }
+
+                        double c = mediana(busca);
+                        double cl = mediana(buscaLote);
+                        String linha = dataset + "," + cap + "," + tipo + "," + lote + "," + carga.length + ","
+                                + Math.round(mediana(ins)) + "," + Math.round(mediana(insLote)) + ","
+                                + Math.round(c) + "," + Math.round(cl) + "," + (c > 0.0 ? Math.round(cl / c * 100.0) / 100.0 : 0.0);
+                        out.write(linha);
+                        out.write('\n');
+                        out.flush();
+                        System.out.println(linha);
+                    }
+                }
+            }
+        }
+        System.out.println("CSV gerado em: " + new File(csv).getAbsolutePath());
+    }
+
+    // blocos de 500 presentes + 500 ausentes, como o Main.medirBusca, até completar quantas
+    static String[] cargaMedirBusca(String[] chaves, int quantas) {
+        String[] carga = new String[quantas];
+        int presentes = 0;
+        int ausentes = 0;
+        for (int i = 0; i < quantas; i++) {
+            if ((i / 500) % 2 == 0 && chaves.length > 0) {
+                carga[i] = chaves[(int) ((presentes * 7L) % chaves.length)];
+                presentes = presentes + 1;
+            } else {
+                carga[i] = PREFIXO_AUSENTE + ausentes;
+                ausentes = ausentes + 1;
+            }
+        }
+        return carga;
+    }
+
+    private static HashTable montar(String tipo, String cap, String[] chaves, int lote, boolean emLote) {
+        HashTable t = novaTabela(tipo, cap);
+        if (emLote) {
+            String[] fatia = new String[lote];
+            for (int ini = 0; ini < chaves.length; ini += lote) {
+                int qtd = Math.min(lote, chaves.length - ini);
+                if (qtd < lote) fatia = new String[qtd];
+                System.arraycopy(chaves, ini, fatia, 0, qtd);
+                t.insertBatch(fatia);
+            }
+        } else {
+            for (int i = 0; i < chaves.length; i++) t.insert(chaves[i]);
+        }
+        if (t instanceof AbstractHashTable) ((AbstractHashTable) t).completeResize();
+        return t;
+    }
+
+    // contains/s sobre a carga inteira; o lote é copiado para um array próprio, como chegaria
+    // num handler (a cópia é feita também no caminho chave a chave, para os dois pagarem igual)
+    private static double medirConsultas(HashTable t, String[] carga, int lote, boolean emLote) {
+        String[] fatia = new String[lote];
+        boolean[] saida = new boolean[lote];
+        long achou = 0;
+        long t0 = System.nanoTime();
+        for (int ini = 0; ini < carga.length; ini += lote) {
+            int qtd = Math.min(lote, carga.length - ini);
+            if (qtd < lote) fatia = new String[qtd];
+            System.arraycopy(carga, ini, fatia, 0, qtd);
+            if (emLote) {
+                t.containsBatch(fatia, saida);
+                for (int i = 0; i < qtd; i++) if (saida[i]) achou++;
+            } else {
+                for (int i = 0; i < qtd; i++) if (t.contains(fatia[i])) achou++;
+            }
+        }
+        long t1 = System.nanoTime();
+        sumidouro += achou;
+        return opsPorSegundo(carga.length, t1 - t0);
+    }
+
+    private static HashTable novaTabela(String tipo, String cap) {
+        if (!cap.equals("auto")) return ExperimentRunner.newTable(tipo, Integer.parseInt(cap));
+        if (tipo.startsWith("chained:")) {
+            return new ChainedHashTable(32, 0.75, HashFunction.byName(tipo.substring("chained:".length())));
+        }
+        switch (tipo) {
+            case "HashTable1": return new HashTable1(32, 0.75);
+            case "HashTable2": return new HashTable2(32, 0.75);
+            default: return ExperimentRunner.newTable(tipo, 32); // as demais crescem sozinhas
+        }
+    }
+
+    private static double opsPorSegundo(int ops, long ns) {
+        return ns <= 0 ? 0.0 : ops * 1e9 / ns;
+    }
+
+    private static double mediana(double[] v) {
+        double[] c = v.clone();
+        Arrays.sort(c);
+        int m = c.length / 2;
+        return c.length % 2 == 1 ? c[m] : (c[m - 1] + c[m]) / 2.0;
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+}
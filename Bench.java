@@ -0,0 +1,242 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Micro-benchmark no estilo JMH (aquecimento + iterações medidas + intervalo de confiança),
+// sem dependência externa. Resultados em JSON no mesmo formato do JMH (-rf json).
+// Diferente do JMH, tudo roda nesta mesma JVM, um benchmark depois do outro (o JSON diz
+// "forks" : 0): o perfil do JIT de uma tabela pode influir nas seguintes, então compare
+// resultados de execuções separadas (--datasets/--capacidades) quando isso importar.
+//
+// Uso: java Bench [--datasets=female_names.txt,sintetico:100000] [--capacidades=32,auto]
+//                 [--aquecimento=5] [--iteracoes=10] [--json=bench.json]
+//
+// dataset "sintetico:N" = N nomes aleatórios (semente fixa; também ids:N, prefixo:N e quase:N,
+// ver KeyGenerators); capacidade "auto" = modo redimensionável (inicial 32, fator de carga
+// 0.75); um número = modo fixo com exatamente esse número de baldes (sem o teto de 32 do
+// construtor HashTableX(cap)), o mesmo que vai para o JSON.
+public final class Bench {
+    private static final double Z_999 = 3.291; // 99.9%, como o scoreError do JMH
+    private static final long SEMENTE = 0x5EEDL;
+    private static final String[] FUNCOES = { "fnv1a", "djb2", "xxhash64", "murmur3", "wyhash", "siphash" };
+
+    private static volatile long sumidouro; // "blackhole": impede o JIT de descartar o trabalho
+
+    private Bench() {}
+
+    interface Operacao {
+        long executar(); // devolve um checksum que vai para o sumidouro
+    }
+
+    private static final class Resultado {
+        final String benchmark;
+        final String dataset;
+        final String capacidade;
+        final int aquecimento;
+        final double[] amostras; // ns/op por iteração
+
+        Resultado(String benchmark, String dataset, String capacidade, int aquecimento, double[] amostras) {
+            this.benchmark = benchmark;
+            this.dataset = dataset;
+            this.capacidade = capacidade;
+            this.aquecimento = aquecimento;
+            this.amostras = amostras;
+        }
+
+        double media() {
+            double s = 0;
+            for (double a : amostras) s += a;
+            return s / amostras.length;
+        }
+
+        double erro() {
+            if (amostras.length < 2) return Double.NaN;
+            double m = media();
+            double s = 0;
+            for (double a : amostras) s += (a - m) * (a - m);
+            double desvio = Math.sqrt(s / (amostras.length - 1));
+            return Z_999 * desvio / Math.sqrt(amostras.length);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] datasets = { padraoNomes(), "sintetico:100000", "sintetico:1000000" };
+        String[] capacidades = { "32", "auto" };
+        int aquecimento = 5;
+        int iteracoes = 10;
+        String json = "bench.json";
+
+        for (String a : args) {
+            if (a.startsWith("--datasets=")) datasets = valor(a).split(",");
+            else if (a.startsWith("--capacidades=")) capacidades = valor(a).split(",");
+            else if (a.startsWith("--aquecimento=")) aquecimento = Integer.parseInt(valor(a));
+            else if (a.startsWith("--iteracoes=")) iteracoes = Integer.parseInt(valor(a));
+            else if (a.startsWith("--json=")) json = valor(a);
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (String dataset : datasets) {
+            final String[] chaves = carregarDataset(dataset);
+            final String[] ausentes = chavesAusentes(chaves);
+
+            // funções de hash isoladas (não dependem da capacidade)
+            for (String nome : FUNCOES) {
+                final HashFunction f = HashFunction.byName(nome);
+                resultados.add(medir("hash." + nome, dataset, "-", aquecimento, iteracoes, chaves.length, () -> {
+                    long s = 0;
+                    for (String k : chaves) s += f.hash(k);
+                    return s;
+                }));
+            }
+
+            for (String cap : capacidades) {
+                for (int tipo = 1; tipo <= 2; tipo++) {
+                    final int t = tipo;
+                    final String c = cap;
+                    String prefixo = "HashTable" + tipo;
+
+                    resultados.add(medir(prefixo + ".insert", dataset, cap, aquecimento, iteracoes, chaves.length, () -> {
+                        AbstractHashTable tabela = novaTabela(t, c);
+                        for (String k : chaves) tabela.insert(k);
+                        return tabela.size();
+                    }));
+
+                    resultados.add(medir(prefixo + ".insertAll", dataset, cap, aquecimento, iteracoes, chaves.length, () -> {
+                        AbstractHashTable tabela = novaTabela(t, c);
+                        tabela.insertAll(chaves);
+                        return tabela.size();
+                    }));
+
+                    final AbstractHashTable pronta = novaTabela(t, c);
+                    for (String k : chaves) pronta.insert(k);
+                    pronta.completeResize();
+
+                    resultados.add(medir(prefixo + ".containsHit", dataset, cap, aquecimento, iteracoes, chaves.length, () -> {
+                        long s = 0;
+                        for (String k : chaves) if (pronta.contains(k)) s++;
+                        return s;
+                    }));
+                    resultados.add(medir(prefixo + ".containsMiss", dataset, cap, aquecimento, iteracoes, ausentes.length, () -> {
+                        long s = 0;
+                        for (String k : ausentes) if (pronta.contains(k)) s++;
+                        return s;
+                    }));
+                }
+            }
+        }
+
+        escreverJson(json, resultados, iteracoes);
+        System.out.println("JSON gerado em: " + new File(json).getAbsolutePath());
+    }
+
+    private static Resultado medir(String nome, String dataset, String capacidade,
+                                   int aquecimento, int iteracoes, int opsPorIteracao, Operacao op) {
+        for (int i = 0; i < aquecimento; i++) sumidouro += op.executar();
+
+        double[] amostras = new double[iteracoes];
+        for (int i = 0; i < iteracoes; i++) {
+            long t0 = System.nanoTime();
+            sumidouro += op.executar();
+            long t1 = System.nanoTime();
+            amostras[i] = ((double) (t1 - t0)) / opsPorIteracao;
+        }
+        Resultado r = new Resultado(nome, dataset, capacidade, aquecimento, amostras);
+        System.out.println(nome + " [" + dataset + ", cap=" + capacidade + "]: "
+                + arredonda(r.media()) + " +/- " + arredonda(r.erro()) + " ns/op");
+        return r;
+    }
+
+    static AbstractHashTable novaTabela(int tipo, String capacidade) {
+        if (capacidade.equals("auto")) {
+            return tipo == 1 ? new HashTable1(32, 0.75) : new HashTable2(32, 0.75);
+        }
+        int cap = Integer.parseInt(capacidade);
+        if (cap <= 0) throw new IllegalArgumentException("capacidade deve ser > 0 ou auto: " + capacidade);
+        return tipo == 1 ? new HashTable1(cap, 0.0) : new HashTable2(cap, 0.0);
+    }
+
+    static String[] carregarDataset(String dataset) throws IOException {
+        int sep = dataset.indexOf(':');
+        if (sep > 0) {
+            String tipo = dataset.substring(0, sep);
+            if (tipo.equals("sintetico")) return KeyGenerators.generate(dataset, SEMENTE);
+            for (String t : KeyGenerators.TIPOS) if (t.equals(tipo)) return KeyGenerators.generate(dataset, SEMENTE);
+        }
+        return Main.carregarNomes(dataset);
+    }
+
+    // mesma quantidade de chaves, nenhuma presente (o Main usa "__NAO_EXISTE__" + i)
+    private static String[] chavesAusentes(String[] chaves) {
+        String[] saida = new String[chaves.length];
+        for (int i = 0; i < chaves.length; i++) saida[i] = "__NAO_EXISTE__" + i;
+        return saida;
+    }
+
+    private static String padraoNomes() {
+        File dentroDoSrc = new File("src/female_names.txt");
+        return dentroDoSrc.exists() ? dentroDoSrc.getPath() : "female_names.txt";
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+
+    private static void escreverJson(String caminho, List<Resultado> resultados, int iteracoes) throws IOException {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("[\n");
+        for (int i = 0; i < resultados.size(); i++) {
+            Resultado r = resultados.get(i);
+            sb.append("    {\n");
+            sb.append("        \"benchmark\" : \"").append(escaparJson(r.benchmark)).append("\",\n");
+            sb.append("        \"mode\" : \"avgt\",\n");
+            sb.append("        \"threads\" : 1,\n");
+            sb.append("        \"forks\" : 0,\n"); // sem JVM filha por benchmark
+            sb.append("        \"warmupIterations\" : ").append(r.aquecimento).append(",\n");
+            sb.append("        \"measurementIterations\" : ").append(iteracoes).append(",\n");
+            sb.append("        \"params\" : {\n");
+            sb.append("            \"dataset\" : \"").append(escaparJson(r.dataset)).append("\",\n");
+            sb.append("            \"capacidade\" : \"").append(escaparJson(r.capacidade)).append("\"\n");
+            sb.append("        },\n");
+            sb.append("        \"primaryMetric\" : {\n");
+            sb.append("            \"score\" : ").append(numeroJson(r.media())).append(",\n");
+            sb.append("            \"scoreError\" : ").append(numeroJson(r.erro())).append(",\n");
+            sb.append("            \"scoreUnit\" : \"ns/op\",\n");
+            sb.append("            \"rawData\" : [\n                [");
+            for (int j = 0; j < r.amostras.length; j++) {
+                if (j > 0) sb.append(", ");
+                sb.append(numeroJson(r.amostras[j]));
+            }
+            sb.append("]\n            ]\n");
+            sb.append("        }\n");
+            sb.append(i + 1 < resultados.size() ? "    },\n" : "    }\n");
+        }
+        sb.append("]\n");
+        try (OutputStream out = new FileOutputStream(caminho)) {
+            out.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String numeroJson(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) return "\"NaN\"";
+        return Double.toString(v);
+    }
+
+    private static String escaparJson(String s) {
+        StringBuilder r = new StringBuilder(s.length() + 4);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') r.append('\\');
+            r.append(c);
+        }
+        return r.toString();
+    }
+
+    private static String arredonda(double v) {
+        return Double.toString(Math.round(v * 100.0) / 100.0);
+    }
+}
@@ -0,0 +1,8 @@
+// Reordenação da cadeia depois de um contains que achou a chave (AbstractHashTable): as
+// chaves mais consultadas sobem e passam a ser achadas com menos nós comparados.
+enum ChainPolicy {
+    STATIC,        // ordem de inserção (a mais nova primeiro), nunca muda
+    MOVE_TO_FRONT, // a chave achada vai para a cabeça
+    TRANSPOSE,     // a chave achada troca de lugar com a anterior
+    COUNT          // a chave achada passa à frente dos anteriores com menos acessos (contador por nó)
+}
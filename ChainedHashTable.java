@@ -0,0 +1,7 @@
+// Encadeamento separado com qualquer HashFunction (ex.: escolhida por --hash=... no Main)
+final class ChainedHashTable extends AbstractHashTable {
+    public ChainedHashTable(int capacidade, HashFunction funcao) { super(capacidade, funcao); }
+    public ChainedHashTable(int capacidadeInicial, double fatorCarga, HashFunction funcao) {
+        super(capacidadeInicial, fatorCarga, funcao);
+    }
+}
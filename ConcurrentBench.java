@@ -0,0 +1,121 @@
+import java.util.concurrent.CountDownLatch;
+
+// Vazão (ops/s) de contains com 1..N threads leitoras sobre ConcurrentHashTable1/2,
+// opcionalmente com uma thread carregadora inserindo chaves novas ao mesmo tempo.
+//
+// Uso: java ConcurrentBench [--dataset=female_names.txt|sintetico:N] [--capacidade=4096]
+//                           [--max-threads=N] [--duracao-ms=1000] [--com-escritor]
+public final class ConcurrentBench {
+    private static volatile long sumidouro;
+    private static volatile boolean parar;
+
+    private ConcurrentBench() {}
+
+    public static void main(String[] args) throws Exception {
+        String dataset = "female_names.txt";
+        int capacidade = 4096;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        long duracaoMs = 1000;
+        boolean comEscritor = false;
+
+        for (String a : args) {
+            if (a.startsWith("--dataset=")) dataset = valor(a);
+            else if (a.startsWith("--capacidade=")) capacidade = Integer.parseInt(valor(a));
+            else if (a.startsWith("--max-threads=")) maxThreads = Integer.parseInt(valor(a));
+            else if (a.startsWith("--duracao-ms=")) duracaoMs = Long.parseLong(valor(a));
+            else if (a.equals("--com-escritor")) comEscritor = true;
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+
+        String[] chaves = Bench.carregarDataset(dataset);
+        String[] consultas = new String[chaves.length * 2]; // metade presente, metade ausente
+        for (int i = 0; i < chaves.length; i++) {
+            consultas[2 * i] = chaves[i];
+            consultas[2 * i + 1] = "__NAO_EXISTE__" + i;
+        }
+        String[] novas = comEscritor ? KeyGenerators.randomNames(1_000_000, 42L) : new String[0];
+
+        System.out.println("tabela,threads,escritor,ops_por_s,ops_por_s_por_thread,escala");
+        for (int tipo = 1; tipo <= 2; tipo++) {
+            double base = 0;
+            for (int t = 1; t <= maxThreads; t = proximoPasso(t, maxThreads)) {
+                ConcurrentHashTable tabela = tipo == 1 ? new ConcurrentHashTable1(capacidade)
+                                                       : new ConcurrentHashTable2(capacidade);
+                for (String k : chaves) tabela.insert(k);
+
+                rodar(tabela, consultas, novas, t, duracaoMs / 4); // aquecimento
+                double opsPorS = rodar(tabela, consultas, novas, t, duracaoMs);
+                if (t == 1) base = opsPorS;
+                System.out.println("ConcurrentHashTable" + tipo + "," + t + "," + comEscritor + ","
+                        + Math.round(opsPorS) + "," + Math.round(opsPorS / t) + ","
+                        + Math.round(opsPorS / base * 100.0) / 100.0);
+            }
+        }
+    }
+
+    // devolve contains/s somando todas as leitoras (o escritor, se houver, não entra na conta)
+    private static double rodar(final ConcurrentHashTable tabela, final String[] consultas,
+                                final String[] novas, int leitoras, long duracaoMs) throws InterruptedException {
+        final CountDownLatch largada = new CountDownLatch(1);
+        final long[] ops = new long[leitoras];
+        Thread[] threads = new Thread[leitoras + (novas.length > 0 ? 1 : 0)];
+
+        for (int t = 0; t < leitoras; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                aguardar(largada);
+                long n = 0;
+                long achou = 0;
+                int i = id * 7919 % consultas.length;
+                while (!parar) {
+                    for (int j = 0; j < 1024; j++) {
+                        if (tabela.contains(consultas[i])) achou++;
+                        i = i + 1;
+                        if (i == consultas.length) i = 0;
+                    }
+                    n += 1024;
+                }
+                ops[id] = n;
+                sumidouro += achou;
+            });
+        }
+        if (novas.length > 0) {
+            threads[leitoras] = new Thread(() -> {
+                aguardar(largada);
+                int i = 0;
+                while (!parar && i < novas.length) tabela.insert(novas[i++]);
+            });
+        }
+
+        parar = false;
+        for (Thread th : threads) th.start();
+        long t0 = System.nanoTime();
+        largada.countDown();
+        Thread.sleep(duracaoMs);
+        parar = true;
+        for (Thread th : threads) th.join();
+        long t1 = System.nanoTime();
+
+        long total = 0;
+        for (long n : ops) total += n;
+        return total / ((t1 - t0) / 1e9);
+    }
+
+    // 1, 2, 4, ... e por último exatamente N
+    private static int proximoPasso(int t, int max) {
+        if (t == max) return max + 1;
+        return Math.min(t * 2, max);
+    }
+
+    private static void aguardar(CountDownLatch largada) {
+        try {
+            largada.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+}
@@ -0,0 +1,133 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Variante thread-safe do encadeamento separado: inserção na cabeça do balde por CAS
+// (sem locks) e contains sem nenhuma escrita compartilhada. Um Node só é publicado
+// depois de pronto (chave, hash e proximo definidos antes do CAS) e nunca mais muda,
+// então leitores percorrem a cadeia sem sincronização extra.
+// Capacidade fixa (sem o teto de 32 do modo da disciplina): não há redimensionamento.
+abstract class ConcurrentHashTable implements HashTable {
+    protected final AtomicReferenceArray<Node> tabela;
+    protected final int capacidade;
+    private final LongAdder tamanho = new LongAdder();
+    private final LongAdder colisoesTotais = new LongAdder();
+    private final HashFunction funcao; // sem estado: pode ser compartilhada entre threads
+
+    public ConcurrentHashTable(int capacidadeDesejada, HashFunction funcao) {
+        if (funcao == null) throw new NullPointerException("funcao de hash nula");
+        this.funcao = funcao;
+        int cap = capacidadeDesejada;
+        if (cap <= 0) cap = AbstractHashTable.MAX_CAPACITY;
+        this.capacidade = cap;
+        this.tabela = new AtomicReferenceArray<>(cap);
+    }
+
+    // hash completo de 32 bits (mesmas estratégias das tabelas sequenciais)
+    protected final int hash(String chave) {
+        return funcao.hash(chave);
+    }
+
+    @Override
+    public final void insert(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = hash(chave);
+        int idx = indice(h);
+        Node jaVisto = null; // nós a partir daqui já foram comparados numa tentativa anterior
+        Node novo = null;
+        while (true) {
+            Node cabeca = tabela.get(idx);
+            Node atual = cabeca;
+            while (atual != jaVisto) {
+                if (atual.hash == h && atual.chave.equals(chave)) return; // evita duplicata
+                atual = atual.proximo;
+            }
+            if (novo == null) novo = new Node(chave, h);
+            novo.proximo = cabeca;
+            if (tabela.compareAndSet(idx, cabeca, novo)) {
+                if (cabeca != null) colisoesTotais.increment();
+                tamanho.increment();
+                return;
+            }
+            jaVisto = cabeca;
+        }
+    }
+
+    @Override
+    public final boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = hash(chave);
+        Node atual = tabela.get(indice(h));
+        while (atual != null) {
+            if (atual.hash == h && atual.chave.equals(chave)) return true;
+            atual = atual.proximo;
+        }
+        return false;
+    }
+
+    // contadores somados na hora: exatos quando não há inserções concorrentes
+    @Override public final int size() { return (int) tamanho.sum(); }
+    @Override public final int capacity() { return capacidade; }
+    @Override public final long collisionsTotal() { return colisoesTotais.sum(); }
+    @Override public final HashFunction hashFunction() { return funcao; }
+
+    // visão fracamente consistente: chaves publicadas durante a varredura podem ou não aparecer
+    @Override
+    public final void forEachKey(Consumer<? super String> destino) {
+        for (int i = 0; i < capacidade; i++) {
+            for (Node no = tabela.get(i); no != null; no = no.proximo) destino.accept(no.chave);
+        }
+    }
+
+    @Override
+    public final int[] distribution() {
+        int[] dist = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            int c = 0;
+            Node atual = tabela.get(i);
+            while (atual != null) { c = c + 1; atual = atual.proximo; }
+            dist[i] = c;
+        }
+        return dist;
+    }
+
+    @Override
+    public final int[] collisionsPerBucket() {
+        int[] dist = distribution();
+        int[] col = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            int v = dist[i] - 1;
+            if (v < 0) v = 0;
+            col[i] = v;
+        }
+        return col;
+    }
+
+    @Override
+    public final int maxChainLength() {
+        int[] dist = distribution();
+        int max = 0;
+        for (int i = 0; i < capacidade; i++) if (dist[i] > max) max = dist[i];
+        return max;
+    }
+
+    @Override
+    public final int nonEmptyBuckets() {
+        int c = 0;
+        for (int i = 0; i < capacidade; i++) if (tabela.get(i) != null) c = c + 1;
+        return c;
+    }
+
+    @Override
+    public final double avgChainLenNonEmpty() {
+        int naoVazios = nonEmptyBuckets();
+        if (naoVazios == 0) return 0.0;
+        return ((double) size()) / ((double) naoVazios);
+    }
+
+    private int indice(int h) {
+        int r = h % capacidade;
+        if (r < 0) r = r + capacidade;
+        return r;
+    }
+}
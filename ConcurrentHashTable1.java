@@ -0,0 +1,4 @@
+final class ConcurrentHashTable1 extends ConcurrentHashTable {
+    // mesmo FNV-1a do HashTable1
+    public ConcurrentHashTable1(int capacidade) { super(capacidade, new Fnv1aHash()); }
+}
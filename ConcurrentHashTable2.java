@@ -0,0 +1,4 @@
+final class ConcurrentHashTable2 extends ConcurrentHashTable {
+    // mesmo djb2 do HashTable2
+    public ConcurrentHashTable2(int capacidade) { super(capacidade, new Djb2Hash()); }
+}
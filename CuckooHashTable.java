@@ -0,0 +1,269 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Cuckoo hashing com as duas funções do projeto: a posição 1 vem do FNV-1a (HashTable1) e a
+// posição 2 do djb2 (HashTable2), cada uma remisturada com uma semente. Cada balde tem
+// SLOTS posições; uma chave só pode estar num dos seus dois baldes ou no pequeno stash,
+// então contains olha no máximo 2 baldes + stash, sem cadeia.
+//
+// Insert: cabe em um dos dois baldes -> pronto. Senão expulsa um ocupante (escolha
+// pseudoaleatória), que vai para o balde alternativo dele, e assim por diante até
+// MAX_CHUTES. Quem sobrar vai para o stash; com o stash cheio a tabela é reconstruída com
+// sementes novas (e, se ainda assim não couber, com o dobro de baldes).
+final class CuckooHashTable implements HashTable {
+    private static final int SLOTS = 4;
+    private static final int TAM_STASH = 8;
+    private static final int MAX_CHUTES = 500;
+    private static final double CARGA_MAX = 0.90; // baldes de 4 aguentam ~95%
+    private static final int TENTATIVAS_POR_CAPACIDADE = 4;
+
+    private final HashFunction funcao1 = new Fnv1aHash();
+    private final HashFunction funcao2 = new Djb2Hash();
+
+    private String[] chaves;  // balde b ocupa [b * SLOTS, (b + 1) * SLOTS); null = livre
+    private int[] hashes1;
+    private int[] hashes2;
+    private int baldes;       // potência de 2
+    private int mascara;
+    private int semente1;
+    private int semente2;
+
+    private final String[] stash = new String[TAM_STASH];
+    private final int[] stashH1 = new int[TAM_STASH];
+    private final int[] stashH2 = new int[TAM_STASH];
+    private int noStash;
+
+    private int tamanho;
+    private long colisoesTotais; // inserções que não couberam no balde 1
+    private long rehashes;
+    private long expulsoes;
+    private long sorteio = 0x2545F4914F6CDD1DL; // xorshift64 das expulsões
+
+    // quem ficou sem lugar na última colocarComExpulsao
+    private String semTeto;
+    private int semTetoH1, semTetoH2;
+
+    public CuckooHashTable(int baldesIniciais) {
+        int b = 1;
+        while (b < baldesIniciais) b = b * 2;
+        alocar(b);
+    }
+
+    @Override
+    public void insert(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h1 = funcao1.hash(chave);
+        int h2 = funcao2.hash(chave);
+        if (localizar(chave, h1, h2) != 0) return; // evita duplicata
+
+        if (!temLivre(balde(h1, semente1))) colisoesTotais = colisoesTotais + 1;
+        tamanho = tamanho + 1;
+        if (!colocar(chave, h1, h2) && !guardarNoStash(semTeto, semTetoH1, semTetoH2)) {
+            reconstruir(baldes, semTeto, semTetoH1, semTetoH2);
+        }
+        if (tamanho > (long) baldes * SLOTS * CARGA_MAX) reconstruir(baldes * 2, null, 0, 0);
+    }
+
+    @Override
+    public boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        return localizar(chave, funcao1.hash(chave), funcao2.hash(chave)) != 0;
+    }
+
+    @Override public int size() { return tamanho; }
+    @Override public int capacity() { return baldes; }
+    @Override public long collisionsTotal() { return colisoesTotais; }
+    @Override public HashFunction hashFunction() { return funcao1; }
+
+    long rehashes() { return rehashes; }
+    long evictions() { return expulsoes; }
+    int stashSize() { return noStash; }
+
+    // ocupação de cada balde (0..SLOTS); o stash fica de fora
+    @Override
+    public int[] distribution() {
+        int[] dist = new int[baldes];
+        for (int i = 0; i < chaves.length; i++) if (chaves[i] != null) dist[i / SLOTS]++;
+        return dist;
+    }
+
+    @Override
+    public int[] collisionsPerBucket() {
+        int[] dist = distribution();
+        for (int i = 0; i < baldes; i++) dist[i] = dist[i] > 0 ? dist[i] - 1 : 0;
+        return dist;
+    }
+
+    // equivalente da cadeia: quantos lugares a busca da pior chave visita
+    // (1 = balde 1, 2 = balde 2, 3 = stash)
+    @Override
+    public int maxChainLength() {
+        if (noStash > 0) return 3;
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != null && i / SLOTS != balde(hashes1[i], semente1)) return 2;
+        }
+        return tamanho > 0 ? 1 : 0;
+    }
+
+    @Override
+    public int nonEmptyBuckets() {
+        int c = 0;
+        for (int b = 0; b < baldes; b++) if (!vazio(b)) c = c + 1;
+        return c;
+    }
+
+    @Override
+    public double avgChainLenNonEmpty() {
+        int naoVazios = nonEmptyBuckets();
+        if (naoVazios == 0) return 0.0;
+        return ((double) (tamanho - noStash)) / ((double) naoVazios);
+    }
+
+    @Override
+    public void forEachKey(Consumer<? super String> destino) {
+        for (int i = 0; i < chaves.length; i++) if (chaves[i] != null) destino.accept(chaves[i]);
+        for (int i = 0; i < noStash; i++) destino.accept(stash[i]);
+    }
+
+    // 1 = balde 1, 2 = balde 2, 3 = stash, 0 = ausente
+    private int localizar(String chave, int h1, int h2) {
+        int p = balde(h1, semente1) * SLOTS;
+        for (int i = p; i < p + SLOTS; i++) {
+            if (hashes1[i] == h1 && chave.equals(chaves[i])) return 1;
+        }
+        p = balde(h2, semente2) * SLOTS;
+        for (int i = p; i < p + SLOTS; i++) {
+            if (hashes1[i] == h1 && chave.equals(chaves[i])) return 2;
+        }
+        for (int i = 0; i < noStash; i++) {
+            if (stashH1[i] == h1 && stash[i].equals(chave)) return 3;
+        }
+        return 0;
+    }
+
+    // true = colocada; false = alguém (talvez outra chave) ficou em semTeto
+    private boolean colocar(String chave, int h1, int h2) {
+        for (int chute = 0; chute < MAX_CHUTES; chute++) {
+            int b1 = balde(h1, semente1);
+            int b2 = balde(h2, semente2);
+            if (ocuparLivre(b1, chave, h1, h2) || ocuparLivre(b2, chave, h1, h2)) return true;
+
+            long r = proximoSorteio();
+            int vitima = ((r & 1) == 0 ? b1 : b2) * SLOTS + (int) ((r >>> 1) & (SLOTS - 1));
+            String c = chaves[vitima];
+            int v1 = hashes1[vitima], v2 = hashes2[vitima];
+            chaves[vitima] = chave;
+            hashes1[vitima] = h1;
+            hashes2[vitima] = h2;
+            chave = c;
+            h1 = v1;
+            h2 = v2;
+            expulsoes = expulsoes + 1;
+        }
+        semTeto = chave;
+        semTetoH1 = h1;
+        semTetoH2 = h2;
+        return false;
+    }
+
+    private boolean guardarNoStash(String chave, int h1, int h2) {
+        if (noStash == TAM_STASH) return false;
+        stash[noStash] = chave;
+        stashH1[noStash] = h1;
+        stashH2[noStash] = h2;
+        noStash = noStash + 1;
+        return true;
+    }
+
+    // reinsere tudo (mais a chave extra, se houver) com sementes novas; se mesmo assim
+    // sobrar chave com o stash cheio, tenta outras sementes e depois o dobro de baldes
+    private void reconstruir(int novosBaldes, String extra, int extraH1, int extraH2) {
+        int n = tamanho;
+        String[] ks = new String[n];
+        int[] h1s = new int[n];
+        int[] h2s = new int[n];
+        int k = 0;
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] == null) continue;
+            ks[k] = chaves[i]; h1s[k] = hashes1[i]; h2s[k] = hashes2[i]; k++;
+        }
+        for (int i = 0; i < noStash; i++) {
+            ks[k] = stash[i]; h1s[k] = stashH1[i]; h2s[k] = stashH2[i]; k++;
+        }
+        if (extra != null) {
+            ks[k] = extra; h1s[k] = extraH1; h2s[k] = extraH2; k++;
+        }
+
+        int tentativas = 0;
+        while (true) {
+            if (tentativas == TENTATIVAS_POR_CAPACIDADE) {
+                novosBaldes = novosBaldes * 2;
+                tentativas = 0;
+            }
+            tentativas = tentativas + 1;
+            rehashes = rehashes + 1;
+            alocar(novosBaldes);
+            semente1 = (int) proximoSorteio();
+            semente2 = (int) proximoSorteio();
+            boolean ok = true;
+            for (int i = 0; i < k && ok; i++) {
+                if (!colocar(ks[i], h1s[i], h2s[i])) ok = guardarNoStash(semTeto, semTetoH1, semTetoH2);
+            }
+            if (ok) return;
+        }
+    }
+
+    private void alocar(int nBaldes) {
+        baldes = nBaldes;
+        mascara = nBaldes - 1;
+        chaves = new String[nBaldes * SLOTS];
+        hashes1 = new int[nBaldes * SLOTS];
+        hashes2 = new int[nBaldes * SLOTS];
+        Arrays.fill(stash, null);
+        noStash = 0;
+    }
+
+    private boolean ocuparLivre(int b, String chave, int h1, int h2) {
+        int p = b * SLOTS;
+        for (int i = p; i < p + SLOTS; i++) {
+            if (chaves[i] != null) continue;
+            chaves[i] = chave;
+            hashes1[i] = h1;
+            hashes2[i] = h2;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean temLivre(int b) {
+        int p = b * SLOTS;
+        for (int i = p; i < p + SLOTS; i++) if (chaves[i] == null) return true;
+        return false;
+    }
+
+    private boolean vazio(int b) {
+        int p = b * SLOTS;
+        for (int i = p; i < p + SLOTS; i++) if (chaves[i] != null) return false;
+        return true;
+    }
+
+    // remistura com a semente (fmix32 do MurmurHash3) e pega os bits baixos
+    private int balde(int h, int semente) {
+        h ^= semente;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h & mascara;
+    }
+
+    private long proximoSorteio() {
+        long x = sorteio;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        sorteio = x;
+        return x;
+    }
+}
@@ -0,0 +1,52 @@
+// djb2 (h*33 ^ c) com mix (a função original do HashTable2). A semente entra no valor
+// inicial; semente 0 = a função original. Não protege contra chaves escolhidas: as colisões
+// entre chaves do mesmo comprimento quase não dependem do valor inicial.
+final class Djb2Hash implements HashFunction {
+    private final long base;
+
+    Djb2Hash() { this(0L); }
+
+    Djb2Hash(long semente) { this.base = 5381L ^ semente; }
+
+    @Override
+    public int hash(String chave) {
+        long h = base;
+        for (int i = 0; i < chave.length(); i++) {
+            h = ((h << 5) + h) ^ chave.charAt(i); // h*33 ^ c
+        }
+        return misturar(h);
+    }
+
+    // mesmo laço sobre os chars, sem criar a String
+    @Override
+    public int hash(CharSequence chave) {
+        long h = base;
+        for (int i = 0; i < chave.length(); i++) {
+            h = ((h << 5) + h) ^ chave.charAt(i);
+        }
+        return misturar(h);
+    }
+
+    @Override
+    public int hash(char[] chars, int inicio, int tamanho) {
+        long h = base;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            h = ((h << 5) + h) ^ chars[i];
+        }
+        return misturar(h);
+    }
+
+    @Override
+    public HashFunction withSeed(long semente) { return new Djb2Hash(semente); }
+
+    // mistura simples
+    private static int misturar(long h) {
+        h = h ^ (h >>> 15);
+        h = h * 0x27D4EB2DL;
+        h = h ^ (h >>> 15);
+        return (int) h;
+    }
+
+    @Override
+    public String name() { return "djb2"; }
+}
@@ -0,0 +1,201 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Roda várias configurações (tabela, capacidade, dataset) ao mesmo tempo num pool de
+// tamanho fixo e junta as Metrics num único relatório (console + PDF), na ordem da lista.
+//
+// Uso: java ExperimentRunner [--tabelas=HashTable1,HashTable2,LinearProbing,Arena,Cuckoo,chained:xxhash64]
+//          [--capacidades=32,1024] [--datasets=female_names.txt,nomes:100000]
+//          [--threads=N] [--cpus=0-3] [--latencias] [--bloom[=taxaFP]] [--resemear]
+//          [--pdf=experimentos.pdf]
+//
+// Isolamento: cada experimento roda inteiro numa thread do pool e, com mais de uma thread,
+// insere chave a chave (sem o insertAll em fork/join, que disputaria os núcleos com os
+// outros experimentos). --cpus=LISTA (formato do taskset) relança a JVM presa a esses
+// núcleos com -XX:ActiveProcessorCount igual ao tamanho da lista; o pool padrão tem uma
+// thread por núcleo. O Java não fixa threads individuais em núcleos, então a fixação é do
+// processo inteiro.
+public final class ExperimentRunner {
+    private static final String VAR_CPUS = "PBL_CPUS_FIXADAS"; // marca a JVM já relançada
+
+    private ExperimentRunner() {}
+
+    // uma construção + medição; fabrica cria a tabela dentro da thread do pool
+    static final class Experimento {
+        final String titulo;
+        final Supplier<HashTable> fabrica;
+        final String[] chaves;
+
+        Experimento(String titulo, Supplier<HashTable> fabrica, String[] chaves) {
+            this.titulo = titulo;
+            this.fabrica = fabrica;
+            this.chaves = chaves;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] tabelas = { "HashTable1", "HashTable2", "LinearProbing", "Arena", "Cuckoo" };
+        String[] capacidades = { "32" };
+        String[] datasets = { new File("src/female_names.txt").exists() ? "src/female_names.txt" : "female_names.txt" };
+        int threads = Runtime.getRuntime().availableProcessors();
+        String cpus = null;
+        boolean latencias = false;
+        double taxaBloom = 0.0;
+        boolean guarda = false;
+        String pdf = "experimentos.pdf";
+
+        for (String a : args) {
+            if (a.startsWith("--tabelas=")) tabelas = valor(a).split(",");
+            else if (a.startsWith("--capacidades=")) capacidades = valor(a).split(",");
+            else if (a.startsWith("--datasets=")) datasets = valor(a).split(",");
+            else if (a.startsWith("--threads=")) threads = Integer.parseInt(valor(a));
+            else if (a.startsWith("--cpus=")) cpus = valor(a);
+            else if (a.equals("--latencias")) latencias = true;
+            else if (a.equals("--bloom")) taxaBloom = 0.01;
+            else if (a.startsWith("--bloom=")) taxaBloom = Double.parseDouble(valor(a));
+            else if (a.equals("--resemear")) guarda = true;
+            else if (a.startsWith("--pdf=")) pdf = valor(a);
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+        if (cpus != null && System.getenv(VAR_CPUS) == null && relancarFixado(cpus, args)) return;
+
+        // cada dataset é carregado uma vez e compartilhado (só leitura) pelos experimentos
+        Map<String, String[]> carregados = new LinkedHashMap<>();
+        for (String d : datasets) carregados.put(d, Bench.carregarDataset(d));
+
+        List<Experimento> lista = new ArrayList<>();
+        for (Map.Entry<String, String[]> d : carregados.entrySet()) {
+            for (String cap : capacidades) {
+                final int capacidade = Integer.parseInt(cap);
+                for (String tipo : tabelas) {
+                    final String t = tipo;
+                    newTable(t, capacidade); // valida o nome antes de começar
+                    lista.add(new Experimento(tipo + " cap=" + cap + " [" + d.getKey() + "]",
+                            () -> newTable(t, capacidade), d.getValue()));
+                }
+            }
+        }
+
+        long t0 = System.nanoTime();
+        List<Metrics> resultados = run(lista, threads, latencias, taxaBloom, guarda);
+        long t1 = System.nanoTime();
+
+        Main.escreverRelatorios(resultados, pdf, "Relatório – Experimentos – Tabelas Hash");
+        System.out.println();
+        System.out.println(lista.size() + " experimentos com " + Math.max(1, threads) + " threads em "
+                + (t1 - t0) / 1_000_000 + " ms");
+        System.out.println("PDF gerado em: " + new File(pdf).getAbsolutePath());
+    }
+
+    // Metrics na mesma ordem da lista. threads <= 1 = na thread atual, um depois do outro
+    // (exatamente o que o Main fazia), com o insertAll em lote.
+    static List<Metrics> run(List<Experimento> lista, int threads, final boolean latencias,
+                             final double taxaBloom, final boolean guarda) throws InterruptedException {
+        List<Metrics> resultados = new ArrayList<>(lista.size());
+        if (threads <= 1 || lista.size() <= 1) {
+            for (Experimento e : lista) {
+                resultados.add(Main.medirTabela(e.titulo, e.fabrica.get(), e.chaves, latencias, taxaBloom, guarda, true));
+            }
+            return resultados;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, lista.size()));
+        try {
+            List<Future<Metrics>> futuros = new ArrayList<>(lista.size());
+            for (final Experimento e : lista) {
+                futuros.add(pool.submit(() ->
+                        Main.medirTabela(e.titulo, e.fabrica.get(), e.chaves, latencias, taxaBloom, guarda, false)));
+            }
+            for (int i = 0; i < futuros.size(); i++) {
+                try {
+                    resultados.add(futuros.get(i).get());
+                } catch (ExecutionException ex) {
+                    Throwable causa = ex.getCause();
+                    if (causa instanceof RuntimeException) throw (RuntimeException) causa;
+                    if (causa instanceof Error) throw (Error) causa;
+                    throw new IllegalStateException("experimento falhou: " + lista.get(i).titulo, causa);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return resultados;
+    }
+
+    // nomes aceitos em --tabelas; "chained:<funcao>" = encadeamento com HashFunction.byName.
+    // As encadeadas ficam com a capacidade pedida fixa (fator de carga 0, sem o teto de 32)
+    static HashTable newTable(String tipo, int capacidade) {
+        if (tipo.startsWith("chained:")) {
+            HashFunction f = HashFunction.byName(tipo.substring("chained:".length()));
+            return new ChainedHashTable(capacidade, 0.0, f);
+        }
+        switch (tipo) {
+            case "HashTable1": return new HashTable1(capacidade, 0.0);
+            case "HashTable2": return new HashTable2(capacidade, 0.0);
+            case "LinearProbing": return new LinearProbingHashTable(capacidade);
+            case "Arena": return new ArenaHashTable(capacidade);
+            case "Cuckoo": return new CuckooHashTable(capacidade);
+            default:
+                throw new IllegalArgumentException("tabela desconhecida: " + tipo
+                        + " (use HashTable1, HashTable2, LinearProbing, Arena, Cuckoo ou chained:<funcao>)");
+        }
+    }
+
+    // true = o filho (taskset ... java ...) já rodou tudo; false = sem taskset, segue sem fixar
+    private static boolean relancarFixado(String cpus, String[] args) throws InterruptedException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add("taskset");
+        cmd.add("-c");
+        cmd.add(cpus);
+        cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        cmd.add("-XX:ActiveProcessorCount=" + contarCpus(cpus));
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(ExperimentRunner.class.getName());
+        for (String a : args) cmd.add(a);
+
+        ProcessBuilder pb = new ProcessBuilder(cmd).inheritIO();
+        pb.environment().put(VAR_CPUS, cpus);
+        try {
+            int codigo = pb.start().waitFor();
+            if (codigo != 0) throw new IllegalStateException("execucao fixada em " + cpus + " terminou com codigo " + codigo);
+            return true;
+        } catch (IOException e) {
+            System.out.println("taskset indisponivel (" + e.getMessage() + "); rodando sem fixar CPUs");
+            return false;
+        }
+    }
+
+    // "0-3,6,8-9" -> 7
+    static int contarCpus(String lista) {
+        int total = 0;
+        for (String parte : lista.split(",")) {
+            int traco = parte.indexOf('-');
+            if (traco < 0) {
+                Integer.parseInt(parte.trim());
+                total = total + 1;
+            } else {
+                int de = Integer.parseInt(parte.substring(0, traco).trim());
+                int ate = Integer.parseInt(parte.substring(traco + 1).trim());
+                if (ate < de) throw new IllegalArgumentException("faixa de cpus invalida: " + parte);
+                total = total + ate - de + 1;
+            }
+        }
+        return total;
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+}
@@ -0,0 +1,55 @@
+// FNV-1a 32-bit com um leve mix final (a função original do HashTable1). A semente entra
+// no offset basis; semente 0 = a função original. Não protege contra chaves escolhidas: as
+// colisões entre chaves do mesmo comprimento quase não dependem do valor inicial.
+final class Fnv1aHash implements HashFunction {
+    private final long base;
+
+    Fnv1aHash() { this(0L); }
+
+    Fnv1aHash(long semente) { this.base = 0x811C9DC5L ^ semente; }
+
+    @Override
+    public int hash(String chave) {
+        long h = base; // offset basis
+        for (int i = 0; i < chave.length(); i++) {
+            h = h ^ chave.charAt(i);
+            h = h * 0x01000193L; // prime
+        }
+        return misturar(h);
+    }
+
+    // mesmo laço sobre os chars, sem criar a String
+    @Override
+    public int hash(CharSequence chave) {
+        long h = base;
+        for (int i = 0; i < chave.length(); i++) {
+            h = h ^ chave.charAt(i);
+            h = h * 0x01000193L;
+        }
+        return misturar(h);
+    }
+
+    @Override
+    public int hash(char[] chars, int inicio, int tamanho) {
+        long h = base;
+        for (int i = inicio; i < inicio + tamanho; i++) {
+            h = h ^ chars[i];
+            h = h * 0x01000193L;
+        }
+        return misturar(h);
+    }
+
+    @Override
+    public HashFunction withSeed(long semente) { return new Fnv1aHash(semente); }
+
+    // mistura simples
+    private static int misturar(long h) {
+        h = h ^ (h >>> 13);
+        h = h * 0x85EBCA6BL;
+        h = h ^ (h >>> 16);
+        return (int) h;
+    }
+
+    @Override
+    public String name() { return "fnv1a"; }
+}
@@ -0,0 +1,37 @@
+// Estratégia de hash usada pelas tabelas por composição (antes era fixada por subclasse).
+// Devolve o hash completo de 32 bits; o índice do balde é responsabilidade da tabela.
+interface HashFunction {
+    int hash(String chave);
+
+    // o mesmo hash da String com os mesmos chars. O padrão cria a String; Fnv1aHash e
+    // Djb2Hash percorrem os chars direto (consultas sem alocação nas tabelas encadeadas)
+    default int hash(CharSequence chave) {
+        return hash(chave.toString());
+    }
+
+    default int hash(char[] chars, int inicio, int tamanho) {
+        return hash(new String(chars, inicio, tamanho));
+    }
+
+    String name();
+
+    // a mesma função com outra semente (a guarda contra cadeias longas troca a semente)
+    default HashFunction withSeed(long semente) {
+        throw new UnsupportedOperationException("funcao de hash sem semente: " + name());
+    }
+
+    // nomes aceitos em --hash=... no Main
+    static HashFunction byName(String nome) {
+        switch (nome.toLowerCase()) {
+            case "fnv1a": return new Fnv1aHash();
+            case "djb2": return new Djb2Hash();
+            case "xxhash64": return new XxHash64(0L);
+            case "murmur3": return new Murmur3Hash(0L);
+            case "wyhash": return new WyHash(0L);
+            case "siphash": return new SipHash(0L, 0L);
+            default:
+                throw new IllegalArgumentException("funcao de hash desconhecida: " + nome
+                        + " (use fnv1a, djb2, xxhash64, murmur3, wyhash ou siphash)");
+        }
+    }
+}
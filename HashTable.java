@@ -0,0 +1,56 @@
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// superfície comum das tabelas (encadeadas ou não) usada pelo Main e pelas Metrics
+interface HashTable {
+    void insert(String chave);
+    boolean contains(String chave);
+
+    // chave sem String pronta (texto lido de um buffer): o padrão cria a String; as tabelas
+    // encadeadas (AbstractHashTable) consultam sem alocar. bytes = texto em UTF-8
+    default void insert(CharSequence chave) { insert(chave.toString()); }
+    default void insert(char[] chars, int inicio, int tamanho) { insert(new String(chars, inicio, tamanho)); }
+    default void insert(byte[] utf8, int inicio, int tamanho) {
+        insert(new String(utf8, inicio, tamanho, StandardCharsets.UTF_8));
+    }
+
+    default boolean contains(CharSequence chave) { return contains(chave.toString()); }
+    default boolean contains(char[] chars, int inicio, int tamanho) { return contains(new String(chars, inicio, tamanho)); }
+    default boolean contains(byte[] utf8, int inicio, int tamanho) {
+        return contains(new String(utf8, inicio, tamanho, StandardCharsets.UTF_8));
+    }
+
+    // construção em lote; o padrão é o laço sequencial de insert
+    default void insertAll(String[] chaves) {
+        for (int i = 0; i < chaves.length; i++) insert(chaves[i]);
+    }
+
+    // lotes de consultas/inserções (um handler com centenas de chaves de uma vez): saida[i] =
+    // contains(chaves[i]). O padrão é o laço; as tabelas encadeadas sondam as cadeias intercaladas
+    default void containsBatch(String[] chaves, boolean[] saida) {
+        if (saida.length < chaves.length) {
+            throw new IllegalArgumentException("saida menor que o lote: " + saida.length + " < " + chaves.length);
+        }
+        for (int i = 0; i < chaves.length; i++) saida[i] = contains(chaves[i]);
+    }
+
+    default void insertBatch(String[] chaves) {
+        for (int i = 0; i < chaves.length; i++) insert(chaves[i]);
+    }
+
+    int size();
+    int capacity();
+    long collisionsTotal();
+
+    int[] distribution();
+    int[] collisionsPerBucket();
+    int maxChainLength();
+    int nonEmptyBuckets();
+    double avgChainLenNonEmpty();
+
+    // cada chave uma vez, em ordem qualquer (snapshot, reparticionamento...)
+    void forEachKey(Consumer<? super String> destino);
+
+    // função usada nos índices; quem salva/recarrega a tabela precisa dela
+    HashFunction hashFunction();
+}
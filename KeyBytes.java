@@ -0,0 +1,42 @@
+// Visão da String como bytes UTF-16LE (2 bytes por char), para as funções de hash que
+// consomem 8 bytes por passo: uma palavra de 64 bits = 4 chars, sem copiar nem alocar.
+// Todos os deslocamentos em bytes usados aqui são pares (começo de um char).
+final class KeyBytes {
+    private KeyBytes() {}
+
+    static int length(String s) {
+        return s.length() << 1;
+    }
+
+    // 8 bytes little-endian a partir do byte b (par)
+    static long long64(String s, int b) {
+        int i = b >>> 1;
+        return (long) s.charAt(i)
+                | ((long) s.charAt(i + 1) << 16)
+                | ((long) s.charAt(i + 2) << 32)
+                | ((long) s.charAt(i + 3) << 48);
+    }
+
+    // 4 bytes little-endian a partir do byte b (par), sem sinal
+    static long int32(String s, int b) {
+        int i = b >>> 1;
+        return ((long) s.charAt(i) | ((long) s.charAt(i + 1) << 16)) & 0xFFFFFFFFL;
+    }
+
+    static int byteAt(String s, int b) {
+        char c = s.charAt(b >>> 1);
+        return (b & 1) == 0 ? (c & 0xFF) : (c >>> 8);
+    }
+
+    // até 8 bytes little-endian a partir de b (para as caudas)
+    static long tail(String s, int b, int qtd) {
+        long v = 0;
+        for (int k = 0; k < qtd; k++) v |= ((long) byteAt(s, b + k)) << (8 * k);
+        return v;
+    }
+
+    // dobra 64 -> 32 bits preservando a entropia das duas metades
+    static int fold(long h) {
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,138 @@
+import java.util.Random;
+
+// Geradores de chaves sintéticas com semente fixa, todos sem repetição (o índice i entra
+// em toda chave), para os benchmarks irem além dos 5.000 nomes do arquivo.
+//
+//   nomes:N    nomes pronunciáveis de 2-4 sílabas + índice ("Kalima123")
+//   ids:N      identificadores sequenciais de 12 dígitos ("000000000123")
+//   prefixo:N  prefixo comum longo (URL) + sufixo aleatório curto
+//   quase:N    quase-duplicatas adversariais: a mesma base de 24 letras, mudando só as
+//              últimas letras (o índice em base 26), o pior caso para hashes fracos
+//
+// zipfLookups monta uma carga de consultas (não chaves novas) sobre um conjunto existente.
+final class KeyGenerators {
+    private static final String[] SILABAS = { "a", "be", "ca", "da", "el", "fi", "ga", "ha", "is", "jo", "ka", "li",
+            "ma", "na", "ol", "pa", "ra", "sa", "ta", "ul", "va", "xe", "ya", "ze" };
+    private static final String PREFIXO_URL = "https://exemplo.com.br/cadastro/clientes/regiao-sul/";
+
+    static final String[] TIPOS = { "nomes", "ids", "prefixo", "quase" };
+
+    private KeyGenerators() {}
+
+    // "tipo:N" (aceita "sintetico:N" como sinônimo de "nomes:N")
+    static String[] generate(String espec, long semente) {
+        int sep = espec.indexOf(':');
+        if (sep < 0) throw new IllegalArgumentException("gerador sem tamanho (use tipo:N): " + espec);
+        return generate(espec.substring(0, sep), Integer.parseInt(espec.substring(sep + 1)), semente);
+    }
+
+    static String[] generate(String tipo, int n, long semente) {
+        switch (tipo) {
+            case "nomes":
+            case "sintetico": return randomNames(n, semente);
+            case "ids": return sequentialIds(n);
+            case "prefixo": return sharedPrefix(n, semente);
+            case "quase": return nearDuplicates(n, semente);
+            default:
+                throw new IllegalArgumentException("gerador desconhecido: " + tipo + " (use nomes, ids, prefixo ou quase)");
+        }
+    }
+
+    // nomes pronunciáveis a partir de sílabas, com sufixo numérico para garantir unicidade
+    static String[] randomNames(int n, long semente) {
+        Random r = new Random(semente);
+        String[] saida = new String[n];
+        StringBuilder sb = new StringBuilder(16);
+        for (int i = 0; i < n; i++) {
+            sb.setLength(0);
+            int partes = 2 + r.nextInt(3);
+            for (int p = 0; p < partes; p++) sb.append(SILABAS[r.nextInt(SILABAS.length)]);
+            sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+            sb.append(i);
+            saida[i] = sb.toString();
+        }
+        return saida;
+    }
+
+    // quantas consultas sorteadas com Zipf(s): a chave de posto r (1 = mais popular) sai com
+    // probabilidade proporcional a 1 / r^s. Os postos são um embaralhamento das chaves, então
+    // as populares ficam espalhadas por baldes e posições de cadeia quaisquer.
+    static String[] zipfLookups(String[] chaves, int quantas, double s, long semente) {
+        int n = chaves.length;
+        if (n == 0) throw new IllegalArgumentException("conjunto de chaves vazio");
+        Random r = new Random(semente);
+        String[] porPosto = chaves.clone();
+        for (int i = n - 1; i > 0; i--) { // Fisher-Yates
+            int j = r.nextInt(i + 1);
+            String t = porPosto[i];
+            porPosto[i] = porPosto[j];
+            porPosto[j] = t;
+        }
+        double[] acumulada = new double[n];
+        double soma = 0.0;
+        for (int i = 0; i < n; i++) {
+            soma = soma + 1.0 / Math.pow(i + 1, s);
+            acumulada[i] = soma;
+        }
+        String[] saida = new String[quantas];
+        for (int k = 0; k < quantas; k++) {
+            double u = r.nextDouble() * soma;
+            int lo = 0, hi = n - 1; // primeiro posto com acumulada > u
+            while (lo < hi) {
+                int meio = (lo + hi) >>> 1;
+                if (acumulada[meio] > u) hi = meio;
+                else lo = meio + 1;
+            }
+            saida[k] = porPosto[lo];
+        }
+        return saida;
+    }
+
+    static String[] sequentialIds(int n) {
+        String[] saida = new String[n];
+        char[] buf = new char[12];
+        for (int i = 0; i < n; i++) {
+            long v = i;
+            for (int p = buf.length - 1; p >= 0; p--) {
+                buf[p] = (char) ('0' + v % 10);
+                v = v / 10;
+            }
+            saida[i] = new String(buf);
+        }
+        return saida;
+    }
+
+    static String[] sharedPrefix(int n, long semente) {
+        Random r = new Random(semente);
+        String[] saida = new String[n];
+        StringBuilder sb = new StringBuilder(PREFIXO_URL.length() + 24);
+        for (int i = 0; i < n; i++) {
+            sb.setLength(0);
+            sb.append(PREFIXO_URL);
+            for (int p = 0; p < 4; p++) sb.append((char) ('a' + r.nextInt(26)));
+            sb.append('-').append(i);
+            saida[i] = sb.toString();
+        }
+        return saida;
+    }
+
+    static String[] nearDuplicates(int n, long semente) {
+        Random r = new Random(semente);
+        char[] base = new char[24];
+        for (int p = 0; p < base.length; p++) base[p] = (char) ('a' + r.nextInt(26));
+        int digitos = 1;
+        for (long cap = 26; cap < n; cap = cap * 26) digitos = digitos + 1;
+
+        String[] saida = new String[n];
+        char[] buf = base.clone();
+        for (int i = 0; i < n; i++) {
+            int v = i;
+            for (int p = buf.length - 1; p >= buf.length - digitos; p--) {
+                buf[p] = (char) ('a' + v % 26);
+                v = v / 26;
+            }
+            saida[i] = new String(buf);
+        }
+        return saida;
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+// Histograma de valores >= 0 (latência em ns, nós sondados...) no estilo do HdrHistogram:
+// baldes log-lineares com 2^BITS_SUB sub-baldes por potência de 2, então o erro relativo
+// fica abaixo de 1/2^BITS_SUB (~3%) em qualquer escala, com um único long[] fixo.
+// record() é só aritmética de bits + um incremento, sem alocação.
+final class LatencyHistogram {
+    private static final int BITS_SUB = 5;
+    private static final int SUB = 1 << BITS_SUB; // valores < 2 * SUB são exatos
+    private static final int BALDES = SUB + (64 - BITS_SUB) * SUB;
+
+    private final long[] contagens = new long[BALDES];
+    private long total;
+    private long minimo = Long.MAX_VALUE;
+    private long maximo;
+    private long soma;
+
+    void record(long valor) {
+        if (valor < 0) valor = 0; // relógio andou para trás: conta como 0
+        contagens[indice(valor)]++;
+        total = total + 1;
+        soma = soma + valor;
+        if (valor < minimo) minimo = valor;
+        if (valor > maximo) maximo = valor;
+    }
+
+    void reset() {
+        Arrays.fill(contagens, 0L);
+        total = 0;
+        soma = 0;
+        minimo = Long.MAX_VALUE;
+        maximo = 0;
+    }
+
+    long count() { return total; }
+    long min() { return total == 0 ? 0 : minimo; }
+    long max() { return maximo; }
+    double mean() { return total == 0 ? 0.0 : (double) soma / (double) total; }
+
+    // menor valor v tal que pelo menos q% das amostras são <= v (limite superior do balde,
+    // nunca acima do máximo observado); q em [0, 100]
+    long percentile(double q) {
+        if (total == 0) return 0;
+        if (q < 0.0 || q > 100.0) throw new IllegalArgumentException("percentil fora de [0, 100]: " + q);
+        long alvo = (long) Math.ceil(q / 100.0 * total);
+        if (alvo < 1) alvo = 1;
+        long acumulado = 0;
+        for (int i = 0; i < BALDES; i++) {
+            acumulado = acumulado + contagens[i];
+            if (acumulado >= alvo) return Math.min(limiteSuperior(i), maximo);
+        }
+        return maximo;
+    }
+
+    private static int indice(long v) {
+        if (v < SUB) return (int) v;
+        int desloc = 63 - Long.numberOfLeadingZeros(v) - BITS_SUB; // >= 0
+        int topo = (int) (v >>> desloc);                          // em [SUB, 2 * SUB)
+        return SUB + desloc * SUB + (topo - SUB);
+    }
+
+    private static long limiteSuperior(int i) {
+        if (i < SUB) return i;
+        int desloc = (i - SUB) / SUB;
+        long topo = (i - SUB) % SUB + SUB;
+        long sup = ((topo + 1) << desloc) - 1;
+        return sup < 0 ? Long.MAX_VALUE : sup;
+    }
+}
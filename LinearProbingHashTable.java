@@ -0,0 +1,149 @@
+import java.util.function.Consumer;
+
+// Endereçamento aberto com sondagem linear: chaves e hashes (FNV-1a por padrão) em
+// vetores paralelos, sem Node nem ponteiro "proximo". Na sondagem compara-se primeiro o
+// hash guardado (int) e só então a String.
+final class LinearProbingHashTable implements HashTable {
+    private static final double FATOR_CARGA_MAX = 0.75;
+
+    private String[] chaves; // null = posição livre
+    private int[] hashes;
+    private int capacidade;  // sempre potência de 2
+    private int mascara;
+    private int tamanho;
+    private long colisoesTotais;
+    private final HashFunction funcao;
+
+    // a capacidade é só a inicial: endereçamento aberto precisa de capacidade > tamanho,
+    // então a tabela dobra ao passar de FATOR_CARGA_MAX
+    public LinearProbingHashTable(int capacidadeInicial) {
+        this(capacidadeInicial, new Fnv1aHash());
+    }
+
+    public LinearProbingHashTable(int capacidadeInicial, HashFunction funcao) {
+        if (funcao == null) throw new NullPointerException("funcao de hash nula");
+        this.funcao = funcao;
+        int cap = 1;
+        while (cap < capacidadeInicial) cap = cap * 2;
+        if (cap < 2) cap = 2;
+        alocar(cap);
+        this.tamanho = 0;
+        this.colisoesTotais = 0;
+    }
+
+    @Override
+    public void insert(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = funcao.hash(chave);
+        int pos = h & mascara;
+
+        if (chaves[pos] != null) {
+            while (chaves[pos] != null) {
+                if (hashes[pos] == h && chaves[pos].equals(chave)) return; // evita duplicata
+                pos = (pos + 1) & mascara;
+            }
+            colisoesTotais = colisoesTotais + 1;
+        }
+
+        chaves[pos] = chave;
+        hashes[pos] = h;
+        tamanho = tamanho + 1;
+        if (tamanho > capacidade * FATOR_CARGA_MAX) crescer();
+    }
+
+    @Override
+    public boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = funcao.hash(chave);
+        int pos = h & mascara;
+        while (chaves[pos] != null) {
+            if (hashes[pos] == h && chaves[pos].equals(chave)) return true;
+            pos = (pos + 1) & mascara;
+        }
+        return false;
+    }
+
+    @Override public int size() { return tamanho; }
+    @Override public int capacity() { return capacidade; }
+    @Override public long collisionsTotal() { return colisoesTotais; }
+    @Override public HashFunction hashFunction() { return funcao; }
+
+    @Override
+    public void forEachKey(Consumer<? super String> destino) {
+        for (int i = 0; i < capacidade; i++) if (chaves[i] != null) destino.accept(chaves[i]);
+    }
+
+    // #chaves cuja posição "de origem" (hash & mascara) é i
+    @Override
+    public int[] distribution() {
+        int[] dist = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            if (chaves[i] != null) {
+                int origem = hashes[i] & mascara;
+                dist[origem] = dist[origem] + 1;
+            }
+        }
+        return dist;
+    }
+
+    @Override
+    public int[] collisionsPerBucket() {
+        int[] dist = distribution();
+        int[] col = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            int v = dist[i] - 1;
+            if (v < 0) v = 0;
+            col[i] = v;
+        }
+        return col;
+    }
+
+    // equivalente da cadeia aqui é a sequência de sondagem: maior deslocamento + 1
+    @Override
+    public int maxChainLength() {
+        int max = 0;
+        for (int i = 0; i < capacidade; i++) {
+            if (chaves[i] == null) continue;
+            int desloc = (i - (hashes[i] & mascara)) & mascara;
+            if (desloc + 1 > max) max = desloc + 1;
+        }
+        return max;
+    }
+
+    @Override
+    public int nonEmptyBuckets() {
+        int[] dist = distribution();
+        int c = 0;
+        for (int i = 0; i < capacidade; i++) if (dist[i] > 0) c = c + 1;
+        return c;
+    }
+
+    @Override
+    public double avgChainLenNonEmpty() {
+        int naoVazios = nonEmptyBuckets();
+        if (naoVazios == 0) return 0.0;
+        return ((double) tamanho) / ((double) naoVazios);
+    }
+
+    private void alocar(int cap) {
+        this.capacidade = cap;
+        this.mascara = cap - 1;
+        this.chaves = new String[cap];
+        this.hashes = new int[cap];
+    }
+
+    // reinsere usando os hashes guardados, sem recalcular hash de String
+    private void crescer() {
+        String[] velhasChaves = chaves;
+        int[] velhosHashes = hashes;
+        alocar(capacidade * 2);
+        for (int i = 0; i < velhasChaves.length; i++) {
+            String k = velhasChaves[i];
+            if (k == null) continue;
+            int pos = velhosHashes[i] & mascara;
+            while (chaves[pos] != null) pos = (pos + 1) & mascara;
+            chaves[pos] = k;
+            hashes[pos] = velhosHashes[i];
+        }
+    }
+}
@@ -1,15 +1,52 @@
 import java.io.*;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main {
     private static final int CAPACIDADE = 32; // regra: máx. 32
+    private static final String PREFIXO_AUSENTE = "__NAO_EXISTE__";
 
     public static void main(String[] args) throws Exception {
+        // ===== Opções (--hash=xxhash64 etc.) e caminho do arquivo =====
+        String caminho = null;
+        HashFunction funcaoExtra = null;
+        boolean latencias = false; // opt-in: nanoTime + histograma por chamada pesam nos tempos totais
+        double taxaBloom = 0.0; // 0 = sem filtro de Bloom
+        String snapshot = null;
+        boolean perfeita = false;
+        boolean alternativas = false; // tabelas 3-5 (sondagem linear, arena, cuckoo)
+        boolean guarda = false;
+        int threads = 1; // > 1 = mede as tabelas 1..6 ao mesmo tempo (ExperimentRunner)
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--hash=")) {
+                funcaoExtra = HashFunction.byName(args[i].substring("--hash=".length()));
+            } else if (args[i].equals("--bloom")) {
+                taxaBloom = 0.01;
+            } else if (args[i].startsWith("--bloom=")) {
+                taxaBloom = Double.parseDouble(args[i].substring("--bloom=".length()));
+            } else if (args[i].startsWith("--snapshot=")) {
+                snapshot = args[i].substring("--snapshot=".length());
+            } else if (args[i].equals("--perfeita")) {
+                perfeita = true;
+            } else if (args[i].equals("--alternativas")) {
+                alternativas = true;
+            } else if (args[i].equals("--resemear")) {
+                guarda = true;
+            } else if (args[i].startsWith("--threads=")) {
+                threads = Integer.parseInt(args[i].substring("--threads=".length()));
+            } else if (args[i].equals("--latencias")) {
+                latencias = true;
+            } else if (args[i].startsWith("--")) {
+                System.out.println("Opcao desconhecida: " + args[i]);
+                System.out.println("Uso: java Main [--hash=fnv1a|djb2|xxhash64|murmur3|wyhash|siphash] [--latencias] [--resemear] [--bloom[=taxaFP]] [--snapshot=arquivo] [--perfeita] [--alternativas] [--threads=N] [caminho/para/female_names.txt]");
+                return;
+            } else {
+                caminho = args[i];
+            }
+        }
+
         // ===== Descoberta automática do caminho do arquivo =====
-        String caminho;
-        if (args.length > 0) {
-            caminho = args[0];
-        } else {
+        if (caminho == null) {
             File dentroDoSrc = new File("src/female_names.txt");
             File naRaiz = new File("female_names.txt");
             if (dentroDoSrc.exists()) {
@@ -31,88 +68,155 @@ public class Main {
             return;
         }
 
+        List<ExperimentRunner.Experimento> experimentos = new ArrayList<>();
+
         // ===== Tabela 1 =====
-        AbstractHashTable tabela1 = new HashTable1(CAPACIDADE);
+        experimentos.add(new ExperimentRunner.Experimento("Tabela Hash 1 (FNV-1a-like)",
+                () -> new HashTable1(CAPACIDADE), nomes));
 
-        long t0 = System.nanoTime();
-        for (int i = 0; i < nomes.length; i++) {
-            tabela1.insert(nomes[i]);
+        // ===== Tabela 2 =====
+        experimentos.add(new ExperimentRunner.Experimento("Tabela Hash 2 (djb2-like)",
+                () -> new HashTable2(CAPACIDADE), nomes));
+
+        // ===== Tabelas 3-5 (opcionais, --alternativas): os relatórios delas listam milhares de
+        // posições, então ficam fora da comparação padrão entre as tabelas 1 e 2 =====
+        if (alternativas) {
+            // enderecamento aberto; CAPACIDADE é só a capacidade inicial
+            experimentos.add(new ExperimentRunner.Experimento("Tabela Hash 3 (enderecamento aberto, sondagem linear)",
+                    () -> new LinearProbingHashTable(CAPACIDADE), nomes));
+            // chaves em arena de bytes, sem Node/String por entrada
+            experimentos.add(new ExperimentRunner.Experimento("Tabela Hash 4 (arena de bytes, FNV-1a)",
+                    () -> new ArenaHashTable(CAPACIDADE), nomes));
+            // cuckoo: FNV-1a e djb2 como as duas posições, 4 chaves por balde
+            experimentos.add(new ExperimentRunner.Experimento("Tabela Hash 5 (cuckoo FNV-1a/djb2, 4 por balde)",
+                    () -> new CuckooHashTable(CAPACIDADE), nomes));
         }
-        long t1 = System.nanoTime();
-        long tempoInsercao1 = t1 - t0;
-        long tempoBusca1 = medirBusca(tabela1, nomes);
 
-        Metrics m1 = new Metrics(
-                "Tabela Hash 1 (FNV-1a-like)",
-                tempoInsercao1, tempoBusca1, tabela1.collisionsTotal(),
-                tabela1.distribution(), tabela1.collisionsPerBucket(),
-                tabela1.size(), tabela1.capacity(), tabela1.maxChainLength(),
-                tabela1.nonEmptyBuckets(), tabela1.avgChainLenNonEmpty()
-        );
+        // ===== Tabela extra (opcional: encadeamento com a função escolhida em --hash) =====
+        if (funcaoExtra != null) {
+            final HashFunction f = funcaoExtra;
+            experimentos.add(new ExperimentRunner.Experimento("Tabela Hash " + (experimentos.size() + 1)
+                    + " (" + funcaoExtra.name() + ")", () -> new ChainedHashTable(CAPACIDADE, f), nomes));
+        }
 
-        // ===== Tabela 2 =====
-        AbstractHashTable tabela2 = new HashTable2(CAPACIDADE);
-
-        t0 = System.nanoTime();
-        for (int i = 0; i < nomes.length; i++) {
-            tabela2.insert(nomes[i]);
-        }
-        t1 = System.nanoTime();
-        long tempoInsercao2 = t1 - t0;
-        long tempoBusca2 = medirBusca(tabela2, nomes);
-
-        Metrics m2 = new Metrics(
-                "Tabela Hash 2 (djb2-like)",
-                tempoInsercao2, tempoBusca2, tabela2.collisionsTotal(),
-                tabela2.distribution(), tabela2.collisionsPerBucket(),
-                tabela2.size(), tabela2.capacity(), tabela2.maxChainLength(),
-                tabela2.nonEmptyBuckets(), tabela2.avgChainLenNonEmpty()
-        );
-
-        // ===== Console (exigido) =====
-        imprimirRelatorioConsole(m1, "1");
-        imprimirRelatorioConsole(m2, "2");
-
-        // ===== PDF (mesmo conteúdo do console) =====
-        PdfReportWriter.writeReport(
-                "relatorio_hash.pdf",
-                "Relatório – TDE 03 – Tabelas Hash",
-                new String[]{
-                        "==== RESULTADOS – CONSOLE (mesmo conteúdo aqui) ====",
-                        m1.asText(),
-                        "",
-                        m2.asText()
-                }
-        );
+        List<Metrics> resultados = ExperimentRunner.run(experimentos, threads, latencias, taxaBloom, guarda);
+
+        // ===== Snapshot (opcional): (re)grava a Tabela 1 se o arquivo falta ou é de outro dataset, e recarrega mapeado =====
+        if (snapshot != null) {
+            HashTable1 origem = new HashTable1(CAPACIDADE);
+            origem.insertAll(nomes);
+            if (!MappedHashTable.isCurrent(snapshot, origem)) {
+                boolean existia = new File(snapshot).exists();
+                MappedHashTable.save(origem, snapshot);
+                System.out.println((existia ? "Snapshot desatualizado, regravado em: " : "Snapshot salvo em: ")
+                        + new File(snapshot).getAbsolutePath());
+            }
+            long t0 = System.nanoTime();
+            MappedHashTable mapeada = MappedHashTable.load(snapshot);
+            long tempoCarga = System.nanoTime() - t0; // no lugar do tempo de inserção
+            resultados.add(new Metrics(
+                    "Tabela Hash " + (resultados.size() + 1) + " (snapshot mapeado, " + mapeada.hashFunction().name() + ")",
+                    tempoCarga, medirBusca(mapeada, nomes), mapeada, null));
+        }
+
+        // ===== Tabela perfeita (opcional): dicionário congelado, uma sondagem por contains =====
+        if (perfeita) {
+            long t0 = System.nanoTime();
+            PerfectHashTable tp = PerfectHashTable.build(nomes);
+            long tempoConstrucao = System.nanoTime() - t0; // no lugar do tempo de inserção
+            Metrics.Opcionais op = new Metrics.Opcionais();
+            op.bitsPorChave = tp.bitsPerKey();
+            resultados.add(new Metrics(
+                    "Tabela Hash " + (resultados.size() + 1) + " (perfeita minima CHD, xxhash64)",
+                    tempoConstrucao, medirBusca(tp, nomes), tp, op));
+        }
+
+        escreverRelatorios(resultados, "relatorio_hash.pdf", "Relatório – TDE 03 – Tabelas Hash");
 
         System.out.println();
         String caminhoCompleto = new java.io.File("relatorio_hash.pdf").getAbsolutePath();
         System.out.println("PDF gerado em: " + caminhoCompleto);
     }
 
-    private static void imprimirRelatorioConsole(Metrics m, String etiqueta) {
-        System.out.println("====================================================");
-        System.out.println(m.asText());
-        System.out.println();
-        System.out.println("-- DISTRIBUICAO POR POSICAO (Tabela " + etiqueta + ") --");
-        imprimirArray("Chaves por posicao", m.distribuicao);
-        imprimirArray("Colisoes por posicao", m.colisoesPorPosicao);
-        System.out.println("====================================================");
+    // console (exigido) e PDF com o mesmo conteúdo, na ordem de resultados
+    static void escreverRelatorios(List<Metrics> resultados, String caminhoPdf, String titulo) throws IOException {
+        // um único StringBuilder reaproveitado para todos os relatórios
+        StringBuilder saida = new StringBuilder(4096);
+        for (int i = 0; i < resultados.size(); i++) {
+            saida.setLength(0);
+            escreverRelatorioConsole(saida, resultados.get(i), Integer.toString(i + 1));
+            System.out.append(saida);
+        }
+
+        // PDF escrito direto no arquivo
+        try (StreamingPdfWriter pdf = new StreamingPdfWriter(caminhoPdf, titulo, true)) {
+            pdf.line("==== RESULTADOS – CONSOLE (mesmo conteúdo aqui) ====");
+            for (int i = 0; i < resultados.size(); i++) {
+                if (i > 0) pdf.line("");
+                resultados.get(i).appendTo(pdf);
+            }
+        }
     }
 
-    private static void imprimirArray(String titulo, int[] vetor) {
-        System.out.println(titulo + " (cap=" + vetor.length + "):");
-        // imprime como 0:x | 1:y | ...
-        String linha = "";
+    // só nas tabelas com encadeamento (AbstractHashTable): latencias = mede também cada
+    // chamada; taxaBloom > 0 = filtro de Bloom dimensionado para os nomes com essa taxa.
+    // guarda = semente aleatória + resemeadura automática contra cadeias longas.
+    // emLote = insertAll (fork/join nos conjuntos grandes); senão insert chave a chave
+    static Metrics medirTabela(String titulo, HashTable tabela, String[] nomes, boolean latencias,
+                               double taxaBloom, boolean guarda, boolean emLote) {
+        AbstractHashTable instrumentada = null;
+        AbstractHashTable encadeada = null;
+        if (tabela instanceof AbstractHashTable) {
+            encadeada = (AbstractHashTable) tabela;
+            if (latencias) {
+                encadeada.setInstrumentation(true);
+                instrumentada = encadeada;
+            }
+            if (taxaBloom > 0.0) encadeada.enableBloomFilter(nomes.length, taxaBloom);
+            if (guarda) encadeada.setReseedGuard(true);
+        }
+
+        long t0 = System.nanoTime();
+        if (emLote) tabela.insertAll(nomes);
+        else for (int i = 0; i < nomes.length; i++) tabela.insert(nomes[i]);
+        long t1 = System.nanoTime();
+        long tempoInsercao = t1 - t0;
+        long tempoBusca = medirBusca(tabela, nomes);
+
+        Metrics.Opcionais op = new Metrics.Opcionais();
+        if (instrumentada != null) {
+            op.latInsercao = instrumentada.insertLatency();
+            op.latBusca = instrumentada.containsLatency();
+            op.sondagensBusca = instrumentada.probesPerContains();
+        }
+        if (encadeada != null) {
+            op.filtro = encadeada.bloomFilter(); // lido no fim: a guarda pode remontá-lo
+            if (guarda) op.resemeaduras = encadeada.reseeds();
+        }
+        return new Metrics(titulo, tempoInsercao, tempoBusca, tabela, op);
+    }
+
+    private static void escreverRelatorioConsole(StringBuilder out, Metrics m, String etiqueta) throws IOException {
+        out.append("====================================================\n");
+        m.appendTo(out);
+        out.append('\n');
+        out.append("\n-- DISTRIBUICAO POR POSICAO (Tabela ").append(etiqueta).append(") --\n");
+        escreverArray(out, "Chaves por posicao", m.distribuicao);
+        escreverArray(out, "Colisoes por posicao", m.colisoesPorPosicao);
+        out.append("====================================================\n");
+    }
+
+    // imprime como 0:x | 1:y | ...
+    private static void escreverArray(StringBuilder out, String titulo, int[] vetor) {
+        out.append(titulo).append(" (cap=").append(vetor.length).append("):\n");
         for (int i = 0; i < vetor.length; i++) {
-            String pedaco = i + ":" + vetor[i];
-            if (i == 0) linha = pedaco;
-            else linha = linha + " | " + pedaco;
+            if (i > 0) out.append(" | ");
+            out.append(i).append(':').append(vetor[i]);
         }
-        System.out.println(linha);
+        out.append('\n');
     }
 
-    private static long medirBusca(AbstractHashTable tabela, String[] nomes) {
+    private static long medirBusca(HashTable tabela, String[] nomes) {
         int qtdPresentes = 500;
         if (nomes.length < qtdPresentes) qtdPresentes = nomes.length;
 
@@ -122,64 +226,34 @@ public class Main {
             int idx = (i * 7) % nomes.length;
             tabela.contains(nomes[idx]);
         }
-        // buscas ausentes
+        // buscas ausentes: "__NAO_EXISTE__" + i montado num char[] reaproveitado (as tabelas
+        // encadeadas consultam a fatia direto, sem uma String por busca)
+        char[] ausente = new char[PREFIXO_AUSENTE.length() + 10];
+        PREFIXO_AUSENTE.getChars(0, PREFIXO_AUSENTE.length(), ausente, 0);
         for (int i = 0; i < 500; i++) {
-            tabela.contains("__NAO_EXISTE__" + i);
+            tabela.contains(ausente, 0, escreverDigitos(ausente, PREFIXO_AUSENTE.length(), i));
         }
         long fim = System.nanoTime();
         return fim - inicio;
     }
 
-    private static String[] carregarNomes(String caminho) throws IOException {
-        int linhas = contarLinhasNaoVazias(caminho);
-        String[] saida = new String[linhas];
-        InputStream in = new FileInputStream(caminho);
-        InputStreamReader isr = new InputStreamReader(in, StandardCharsets.UTF_8);
-        BufferedReader br = new BufferedReader(isr);
-        try {
-            String linha;
-            int i = 0;
-            while ((linha = br.readLine()) != null) {
-                String limpo = trim(linha);
-                if (limpo.length() == 0) continue;
-                saida[i] = limpo;
-                i = i + 1;
-            }
-        } finally {
-            br.close();
-        }
-        return saida;
-    }
-
-    private static int contarLinhasNaoVazias(String caminho) throws IOException {
-        InputStream in = new FileInputStream(caminho);
-        InputStreamReader isr = new InputStreamReader(in, StandardCharsets.UTF_8);
-        BufferedReader br = new BufferedReader(isr);
-        try {
-            int c = 0;
-            String linha;
-            while ((linha = br.readLine()) != null) {
-                String limpo = trim(linha);
-                if (limpo.length() == 0) continue;
-                c = c + 1;
-            }
-            return c;
-        } finally {
-            br.close();
+    // decimal de v (>= 0) em buf a partir de pos; devolve a posição final
+    private static int escreverDigitos(char[] buf, int pos, int v) {
+        int fim = pos;
+        int x = v;
+        do {
+            fim = fim + 1;
+            x = x / 10;
+        } while (x > 0);
+        for (int p = fim - 1; p >= pos; p--) {
+            buf[p] = (char) ('0' + v % 10);
+            v = v / 10;
         }
+        return fim;
     }
 
-    // trim manual (evita dependência de lib externa e mantém “modo hardcore”)
-    private static String trim(String s) {
-        int ini = 0;
-        int fim = s.length() - 1;
-        while (ini <= fim && ehEspaco(s.charAt(ini))) ini = ini + 1;
-        while (fim >= ini && ehEspaco(s.charAt(fim))) fim = fim - 1;
-        if (ini > fim) return "";
-        return s.substring(ini, fim + 1);
-    }
-
-    private static boolean ehEspaco(char c) {
-        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    // passada única sobre o arquivo mapeado (ver MappedNameLoader)
+    static String[] carregarNomes(String caminho) throws IOException {
+        return MappedNameLoader.load(caminho);
     }
 }
@@ -0,0 +1,349 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Snapshot binário de uma tabela pronta + tabela somente leitura que responde contains
+// direto do arquivo mapeado em memória (sem Node, sem String, sem rehash na carga).
+//
+// Formato (little-endian):
+//   [0]  long  MAGICO          [8]  int versão         [12] int capacidade (potência de 2)
+//   [16] int   tamanho         [20] int hash de SONDA  (confere a função/semente na carga)
+//   [24] long  offset baldes   [32] long offset hashes [40] long offset inícios
+//   [48] long  offset chaves   [56] long bytes de chaves
+//   [64] long  assinatura das chaves de origem (ver assinatura(); diz se o snapshot está velho)
+//   [72] byte  tamanho do nome da função + nome (ASCII), completado até múltiplo de 8
+//   baldes:  int[capacidade + 1]  primeira entrada de cada balde (entradas ordenadas por balde)
+//   hashes:  int[tamanho]
+//   inícios: int[tamanho + 1]     deslocamento da chave e dentro da área de chaves
+//   chaves:  UTF-8, uma atrás da outra
+final class MappedHashTable implements HashTable {
+    private static final long MAGICO = 0x31484c4241544250L; // "PBTABLH1"
+    private static final int VERSAO = 2;
+    private static final int CABECALHO = 72;
+    private static final String SONDA = "PBL_03";
+    private static final XxHash64 ASSINATURA = new XxHash64(0x534E4150L);
+
+    private final MappedByteBuffer buf;
+    private final HashFunction funcao;
+    private final int capacidade;
+    private final int mascara;
+    private final int tamanho;
+    private final int offBaldes, offHashes, offInicios, offChaves;
+
+    private MappedHashTable(MappedByteBuffer buf, HashFunction funcao, int capacidade, int tamanho,
+                            int offBaldes, int offHashes, int offInicios, int offChaves) {
+        this.buf = buf;
+        this.funcao = funcao;
+        this.capacidade = capacidade;
+        this.mascara = capacidade - 1;
+        this.tamanho = tamanho;
+        this.offBaldes = offBaldes;
+        this.offHashes = offHashes;
+        this.offInicios = offInicios;
+        this.offChaves = offChaves;
+    }
+
+    // grava as chaves de qualquer tabela; a função dela precisa ser reproduzível por nome
+    // (HashFunction.byName), senão a carga não conseguiria recalcular os mesmos hashes
+    static void save(HashTable tabela, String caminho) throws IOException {
+        HashFunction f = tabela.hashFunction();
+        int verificacao = f.hash(SONDA);
+        if (HashFunction.byName(f.name()).hash(SONDA) != verificacao) {
+            throw new IllegalArgumentException("funcao de hash " + f.name() + " com semente propria nao pode ir para snapshot");
+        }
+
+        final byte[][][] chaves = { new byte[Math.max(16, tabela.size())][] };
+        final int[][] hashes = { new int[chaves[0].length] };
+        final int[] n = { 0 };
+        final long[] bytesChaves = { 0 };
+        final long[] assinatura = { 0 };
+        tabela.forEachKey(chave -> {
+            if (n[0] == chaves[0].length) {
+                chaves[0] = Arrays.copyOf(chaves[0], n[0] * 2);
+                hashes[0] = Arrays.copyOf(hashes[0], n[0] * 2);
+            }
+            byte[] utf8 = chave.getBytes(StandardCharsets.UTF_8); // surrogate solto vira '?', igual ao iguais()
+            chaves[0][n[0]] = utf8;
+            hashes[0][n[0]] = f.hash(chave);
+            bytesChaves[0] = bytesChaves[0] + utf8.length;
+            assinatura[0] = assinatura[0] + ASSINATURA.hash64(chave);
+            n[0] = n[0] + 1;
+        });
+        int tam = n[0];
+
+        int cap = 1;
+        while (cap < tam) cap = cap * 2; // ~1 chave por balde
+        int masc = cap - 1;
+
+        // ordenação estável por balde (contagem + prefixo)
+        int[] baldes = new int[cap + 1];
+        for (int i = 0; i < tam; i++) baldes[(hashes[0][i] & masc) + 1]++;
+        for (int b = 0; b < cap; b++) baldes[b + 1] = baldes[b + 1] + baldes[b];
+        int[] ordem = new int[tam];
+        int[] livre = Arrays.copyOf(baldes, cap);
+        for (int i = 0; i < tam; i++) ordem[livre[hashes[0][i] & masc]++] = i;
+
+        byte[] nome = f.name().getBytes(StandardCharsets.US_ASCII);
+        long offBaldes = alinhar8(CABECALHO + 1 + nome.length);
+        long offHashes = offBaldes + 4L * (cap + 1);
+        long offInicios = offHashes + 4L * tam;
+        long offChaves = offInicios + 4L * (tam + 1);
+        long total = offChaves + bytesChaves[0];
+        if (total > Integer.MAX_VALUE) throw new IOException("snapshot maior que 2 GiB nao suportado: " + total + " bytes");
+
+        try (FileChannel canal = FileChannel.open(Paths.get(caminho), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = canal.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            out.putLong(0, MAGICO);
+            out.putInt(8, VERSAO);
+            out.putInt(12, cap);
+            out.putInt(16, tam);
+            out.putInt(20, verificacao);
+            out.putLong(24, offBaldes);
+            out.putLong(32, offHashes);
+            out.putLong(40, offInicios);
+            out.putLong(48, offChaves);
+            out.putLong(56, bytesChaves[0]);
+            out.putLong(64, assinatura[0]);
+            out.put(CABECALHO, (byte) nome.length);
+            for (int i = 0; i < nome.length; i++) out.put(CABECALHO + 1 + i, nome[i]);
+
+            for (int b = 0; b <= cap; b++) out.putInt((int) offBaldes + 4 * b, baldes[b]);
+            int p = 0;
+            for (int e = 0; e < tam; e++) {
+                int i = ordem[e];
+                out.putInt((int) offHashes + 4 * e, hashes[0][i]);
+                out.putInt((int) offInicios + 4 * e, p);
+                byte[] k = chaves[0][i];
+                for (int j = 0; j < k.length; j++) out.put((int) offChaves + p + j, k[j]);
+                p = p + k.length;
+            }
+            out.putInt((int) offInicios + 4 * tam, p);
+            out.force();
+        }
+    }
+
+    // soma do xxHash64 de cada chave: não depende da ordem do forEachKey e muda se uma chave
+    // entra, sai ou é trocada no dataset
+    static long assinatura(HashTable tabela) {
+        long[] soma = { 0 };
+        tabela.forEachKey(chave -> soma[0] = soma[0] + ASSINATURA.hash64(chave));
+        return soma[0];
+    }
+
+    // o snapshot em caminho foi gravado a partir destas mesmas chaves, com a mesma função?
+    // Lê só o cabeçalho, sem mapear (regravar um arquivo ainda mapeado falha no Windows);
+    // arquivo ausente, de outro formato ou de outra versão conta como velho
+    static boolean isCurrent(String caminho, HashTable origem) throws IOException {
+        if (!Files.exists(Paths.get(caminho))) return false;
+        ByteBuffer cab = ByteBuffer.allocate(CABECALHO + 256).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel canal = FileChannel.open(Paths.get(caminho), StandardOpenOption.READ)) {
+            while (cab.hasRemaining() && canal.read(cab) >= 0) {
+                // até encher ou acabar o arquivo
+            }
+        }
+        if (cab.position() < CABECALHO + 1 || cab.getLong(0) != MAGICO || cab.getInt(8) != VERSAO) return false;
+        int lenNome = cab.get(CABECALHO) & 0xFF;
+        if (cab.position() < CABECALHO + 1 + lenNome) return false;
+        byte[] nome = new byte[lenNome];
+        for (int i = 0; i < lenNome; i++) nome[i] = cab.get(CABECALHO + 1 + i);
+        return cab.getInt(16) == origem.size()
+                && cab.getLong(64) == assinatura(origem)
+                && new String(nome, StandardCharsets.US_ASCII).equals(origem.hashFunction().name());
+    }
+
+    // mapeia, confere o cabeçalho e percorre uma vez os vetores de baldes e inícios (só leituras
+    // de int, sem alocar): um arquivo corrompido falha aqui com IOException, e não depois com
+    // IndexOutOfBoundsException no meio de um contains
+    static MappedHashTable load(String caminho) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(caminho), StandardOpenOption.READ)) {
+            long total = canal.size();
+            if (total < CABECALHO + 1) throw new IOException("snapshot truncado: " + caminho);
+            if (total > Integer.MAX_VALUE) throw new IOException("snapshot maior que 2 GiB nao suportado: " + caminho);
+            MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, 0, total);
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buf.getLong(0) != MAGICO) throw new IOException("arquivo nao e um snapshot de tabela: " + caminho);
+            if (buf.getInt(8) != VERSAO) throw new IOException("versao de snapshot nao suportada: " + buf.getInt(8));
+            int cap = buf.getInt(12);
+            int tam = buf.getInt(16);
+            long offBaldes = buf.getLong(24);
+            long offHashes = buf.getLong(32);
+            long offInicios = buf.getLong(40);
+            long offChaves = buf.getLong(48);
+            long bytesChaves = buf.getLong(56);
+            int lenNome = buf.get(CABECALHO) & 0xFF;
+            if (cap <= 0 || (cap & (cap - 1)) != 0 || tam < 0 || bytesChaves < 0
+                    || offBaldes < CABECALHO + 1 + lenNome
+                    || offHashes != offBaldes + 4L * (cap + 1) || offInicios != offHashes + 4L * tam
+                    || offChaves != offInicios + 4L * (tam + 1) || offChaves + bytesChaves != total) {
+                throw new IOException("cabecalho de snapshot inconsistente: " + caminho);
+            }
+            // baldes: 0 .. tam sem descer; inícios: 0 .. bytesChaves sem descer
+            verificarCrescente(buf, (int) offBaldes, cap, tam, "baldes", caminho);
+            verificarCrescente(buf, (int) offInicios, tam, bytesChaves, "inicios das chaves", caminho);
+
+            byte[] nome = new byte[lenNome];
+            for (int i = 0; i < lenNome; i++) nome[i] = buf.get(CABECALHO + 1 + i);
+            HashFunction f = HashFunction.byName(new String(nome, StandardCharsets.US_ASCII));
+            if (f.hash(SONDA) != buf.getInt(20)) {
+                throw new IOException("funcao de hash do snapshot nao confere (" + f.name() + "): " + caminho);
+            }
+            return new MappedHashTable(buf, f, cap, tam, (int) offBaldes, (int) offHashes, (int) offInicios, (int) offChaves);
+        }
+    }
+
+    // v[0] == 0, v[n] == ultimo e v[i] <= v[i + 1] para o vetor int[n + 1] em off
+    private static void verificarCrescente(MappedByteBuffer buf, int off, int n, long ultimo, String qual,
+                                           String caminho) throws IOException {
+        int anterior = 0;
+        for (int i = 0; i <= n; i++) {
+            int v = buf.getInt(off + 4 * i);
+            if ((i == 0 && v != 0) || v < anterior || v > ultimo) {
+                throw new IOException("snapshot corrompido (" + qual + "[" + i + "] = " + v + "): " + caminho);
+            }
+            anterior = v;
+        }
+        if (anterior != ultimo) {
+            throw new IOException("snapshot corrompido (" + qual + " termina em " + anterior + ", esperado " + ultimo
+                    + "): " + caminho);
+        }
+    }
+
+    private static long alinhar8(long v) {
+        return (v + 7) & ~7L;
+    }
+
+    @Override
+    public void insert(String chave) {
+        throw new UnsupportedOperationException("snapshot mapeado e somente leitura");
+    }
+
+    @Override
+    public boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int h = funcao.hash(chave);
+        int b = h & mascara;
+        int fim = buf.getInt(offBaldes + 4 * (b + 1));
+        for (int e = buf.getInt(offBaldes + 4 * b); e < fim; e++) {
+            if (buf.getInt(offHashes + 4 * e) == h && iguais(e, chave)) return true;
+        }
+        return false;
+    }
+
+    @Override public int size() { return tamanho; }
+    @Override public int capacity() { return capacidade; }
+    @Override public HashFunction hashFunction() { return funcao; }
+
+    // mesma conta do encadeamento: cada chave que cai em balde já ocupado é uma colisão
+    @Override
+    public long collisionsTotal() {
+        return (long) tamanho - nonEmptyBuckets();
+    }
+
+    @Override
+    public int[] distribution() {
+        int[] dist = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) dist[i] = quantidadeNoBalde(i);
+        return dist;
+    }
+
+    @Override
+    public int[] collisionsPerBucket() {
+        int[] col = new int[capacidade];
+        for (int i = 0; i < capacidade; i++) {
+            int v = quantidadeNoBalde(i) - 1;
+            col[i] = v < 0 ? 0 : v;
+        }
+        return col;
+    }
+
+    @Override
+    public int maxChainLength() {
+        int max = 0;
+        for (int i = 0; i < capacidade; i++) max = Math.max(max, quantidadeNoBalde(i));
+        return max;
+    }
+
+    @Override
+    public int nonEmptyBuckets() {
+        int c = 0;
+        for (int i = 0; i < capacidade; i++) if (quantidadeNoBalde(i) > 0) c = c + 1;
+        return c;
+    }
+
+    @Override
+    public double avgChainLenNonEmpty() {
+        int naoVazios = nonEmptyBuckets();
+        if (naoVazios == 0) return 0.0;
+        return ((double) tamanho) / ((double) naoVazios);
+    }
+
+    @Override
+    public void forEachKey(Consumer<? super String> destino) {
+        byte[] rascunho = new byte[64];
+        for (int e = 0; e < tamanho; e++) {
+            int ini = offChaves + buf.getInt(offInicios + 4 * e);
+            int len = offChaves + buf.getInt(offInicios + 4 * (e + 1)) - ini;
+            if (len > rascunho.length) rascunho = new byte[Math.max(len, rascunho.length * 2)];
+            for (int i = 0; i < len; i++) rascunho[i] = buf.get(ini + i);
+            destino.accept(new String(rascunho, 0, len, StandardCharsets.UTF_8));
+        }
+    }
+
+    private int quantidadeNoBalde(int b) {
+        return buf.getInt(offBaldes + 4 * (b + 1)) - buf.getInt(offBaldes + 4 * b);
+    }
+
+    // compara a entrada e com a String, codificando a String em UTF-8 no caminho (sem alocar)
+    private boolean iguais(int e, String chave) {
+        int p = offChaves + buf.getInt(offInicios + 4 * e);
+        int fim = offChaves + buf.getInt(offInicios + 4 * (e + 1));
+        int n = chave.length();
+        for (int i = 0; i < n; i++) {
+            int c = chave.charAt(i);
+            if (c < 0x80) {
+                if (p >= fim || buf.get(p) != (byte) c) return false;
+                p = p + 1;
+                continue;
+            }
+            if (Character.isHighSurrogate((char) c) && i + 1 < n && Character.isLowSurrogate(chave.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, chave.charAt(i + 1));
+                i = i + 1;
+            } else if (Character.isSurrogate((char) c)) {
+                if (p >= fim || buf.get(p) != (byte) '?') return false; // surrogate solto: '?' na gravação
+                p = p + 1;
+                continue;
+            }
+            if (c < 0x800) {
+                if (p + 2 > fim) return false;
+                if (buf.get(p) != (byte) (0xC0 | (c >>> 6))
+                        || buf.get(p + 1) != (byte) (0x80 | (c & 0x3F))) return false;
+                p = p + 2;
+            } else if (c < 0x10000) {
+                if (p + 3 > fim) return false;
+                if (buf.get(p) != (byte) (0xE0 | (c >>> 12))
+                        || buf.get(p + 1) != (byte) (0x80 | ((c >>> 6) & 0x3F))
+                        || buf.get(p + 2) != (byte) (0x80 | (c & 0x3F))) return false;
+                p = p + 3;
+            } else {
+                if (p + 4 > fim) return false;
+                if (buf.get(p) != (byte) (0xF0 | (c >>> 18))
+                        || buf.get(p + 1) != (byte) (0x80 | ((c >>> 12) & 0x3F))
+                        || buf.get(p + 2) != (byte) (0x80 | ((c >>> 6) & 0x3F))
+                        || buf.get(p + 3) != (byte) (0x80 | (c & 0x3F))) return false;
+                p = p + 4;
+            }
+        }
+        return p == fim;
+    }
+}
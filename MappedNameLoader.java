@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Leitura de listas de nomes (um por linha, UTF-8) em uma única passada sobre o arquivo
+// mapeado em memória (FileChannel.map), sem BufferedReader nem substring por linha.
+// Arquivos maiores que JANELA são mapeados em janelas; uma linha que cruza o fim da
+// janela é relida no início da próxima. Quebras de linha como no BufferedReader.readLine:
+// '\n', '\r' ou "\r\n" (o pedaço vazio entre '\r' e '\n' é só uma linha vazia, ignorada).
+final class MappedNameLoader {
+    private static final long JANELA = 1L << 30; // 1 GiB por mapeamento
+
+    private MappedNameLoader() {}
+
+    // todos os nomes não vazios, sem espaços nas pontas, na ordem do arquivo
+    static String[] load(String caminho) throws IOException {
+        final String[][] saida = { new String[1024] };
+        final int[] n = { 0 };
+        forEachName(caminho, nome -> {
+            if (n[0] == saida[0].length) saida[0] = Arrays.copyOf(saida[0], saida[0].length * 2);
+            saida[0][n[0]] = nome;
+            n[0] = n[0] + 1;
+        });
+        return Arrays.copyOf(saida[0], n[0]);
+    }
+
+    static void forEachName(String caminho, Consumer<String> destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(Paths.get(caminho), StandardOpenOption.READ)) {
+            long tamanhoArquivo = canal.size();
+            byte[] rascunho = new byte[256];
+            long base = 0;
+            while (base < tamanhoArquivo) {
+                long tamJanela = Math.min(JANELA, tamanhoArquivo - base);
+                boolean ultima = base + tamJanela == tamanhoArquivo;
+                MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, base, tamJanela);
+                int lim = (int) tamJanela;
+
+                int ini = 0;
+                for (int i = 0; i < lim; i++) {
+                    byte c = buf.get(i);
+                    if (c != '\n' && c != '\r') continue;
+                    rascunho = emitir(buf, ini, i, rascunho, destino);
+                    ini = i + 1;
+                }
+                if (ultima) {
+                    if (ini < lim) emitir(buf, ini, lim, rascunho, destino); // última linha sem quebra
+                    break;
+                }
+                if (ini == 0) throw new IOException("linha maior que " + JANELA + " bytes em " + caminho);
+                base = base + ini; // recomeça na linha incompleta
+            }
+        }
+    }
+
+    // trim manual de [ini, fim) e decodificação; linhas vazias são ignoradas
+    private static byte[] emitir(MappedByteBuffer buf, int ini, int fim, byte[] rascunho, Consumer<String> destino) {
+        while (ini < fim && ehEspaco(buf.get(ini))) ini = ini + 1;
+        while (fim > ini && ehEspaco(buf.get(fim - 1))) fim = fim - 1;
+        int len = fim - ini;
+        if (len == 0) return rascunho;
+
+        if (len > rascunho.length) rascunho = new byte[Math.max(len, rascunho.length * 2)];
+        boolean ascii = true;
+        for (int i = 0; i < len; i++) {
+            byte b = buf.get(ini + i);
+            rascunho[i] = b;
+            if (b < 0) ascii = false;
+        }
+        // ASCII puro vira String LATIN1 compacta sem passar pelo decodificador UTF-8
+        destino.accept(new String(rascunho, 0, len, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8));
+        return rascunho;
+    }
+
+    private static boolean ehEspaco(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+
 final class Metrics {
     final String titulo;
     final long tempoInsercaoNs;
@@ -10,74 +12,153 @@ final class Metrics {
     final int cadeiaMaxima;
     final int baldesNaoVazios;
     final double mediaCadeiaNaoVazia;
+    // opcionais (null quando a tabela não foi instrumentada)
+    final LatencyHistogram latInsercao;
+    final LatencyHistogram latBusca;
+    final LatencyHistogram sondagensBusca;
+    final BloomFilter filtro;
+    final double bitsPorChave; // NaN = não se aplica (só a tabela perfeita informa)
+    final long resemeaduras;   // -1 = tabela sem a guarda contra cadeias longas
+
+    // estatísticas que só algumas tabelas têm; o que não for preenchido fica fora do relatório
+    static final class Opcionais {
+        LatencyHistogram latInsercao;
+        LatencyHistogram latBusca;
+        LatencyHistogram sondagensBusca;
+        BloomFilter filtro;
+        double bitsPorChave = Double.NaN;
+        long resemeaduras = -1;
+    }
 
-    Metrics(String titulo,
-            long tempoInsercaoNs, long tempoBuscaNs, long colisoesTotais,
-            int[] distribuicao, int[] colisoesPorPosicao,
-            int tamanho, int capacidade, int cadeiaMaxima, int baldesNaoVazios, double mediaCadeiaNaoVazia) {
+    // o estado estrutural (tamanho, distribuição, cadeias...) é lido da tabela já carregada;
+    // opcionais pode ser null
+    Metrics(String titulo, long tempoInsercaoNs, long tempoBuscaNs, HashTable tabela, Opcionais opcionais) {
+        Opcionais op = opcionais == null ? new Opcionais() : opcionais;
         this.titulo = titulo;
         this.tempoInsercaoNs = tempoInsercaoNs;
         this.tempoBuscaNs = tempoBuscaNs;
-        this.colisoesTotais = colisoesTotais;
-        this.distribuicao = distribuicao;
-        this.colisoesPorPosicao = colisoesPorPosicao;
-        this.tamanho = tamanho;
-        this.capacidade = capacidade;
-        this.cadeiaMaxima = cadeiaMaxima;
-        this.baldesNaoVazios = baldesNaoVazios;
-        this.mediaCadeiaNaoVazia = mediaCadeiaNaoVazia;
+        this.colisoesTotais = tabela.collisionsTotal();
+        this.distribuicao = tabela.distribution();
+        this.colisoesPorPosicao = tabela.collisionsPerBucket();
+        this.tamanho = tabela.size();
+        this.capacidade = tabela.capacity();
+        this.cadeiaMaxima = tabela.maxChainLength();
+        this.baldesNaoVazios = tabela.nonEmptyBuckets();
+        this.mediaCadeiaNaoVazia = tabela.avgChainLenNonEmpty();
+        this.latInsercao = op.latInsercao;
+        this.latBusca = op.latBusca;
+        this.sondagensBusca = op.sondagensBusca;
+        this.filtro = op.filtro;
+        this.bitsPorChave = op.bitsPorChave;
+        this.resemeaduras = op.resemeaduras;
     }
 
-    // monta todo o texto na “mão” com concatenação
+    // mesmo texto de sempre; para relatórios grandes prefira appendTo direto no destino
     String asText() {
-        String s = "";
-        s = s + "==== " + titulo + " ====\n";
-        s = s + "Tamanho (size): " + tamanho + "\n";
-        s = s + "Capacidade: " + capacidade + "\n";
-        s = s + "Colisoes totais (insercao): " + colisoesTotais + "\n";
-        s = s + "Tempo de insercao (ns): " + tempoInsercaoNs + "\n";
-        s = s + "Tempo de busca (ns): " + tempoBuscaNs + "\n";
-        s = s + "Buckets nao-vazios: " + baldesNaoVazios + "\n";
-        s = s + "Tamanho maximo de cadeia: " + cadeiaMaxima + "\n";
-        s = s + "Tamanho medio das cadeias (apenas buckets nao-vazios): " + formatarDecimal(mediaCadeiaNaoVazia, 3) + "\n";
+        StringBuilder sb = new StringBuilder(512 + 16 * (distribuicao.length + colisoesPorPosicao.length));
+        try {
+            appendTo(sb);
+        } catch (IOException e) {
+            throw new AssertionError(e); // StringBuilder não lança
+        }
+        return sb.toString();
+    }
 
-        s = s + "\nDistribuicao (#chaves por posicao):\n";
-        for (int i = 0; i < distribuicao.length; i++) {
-            s = s + doisDigitos(i) + ": " + distribuicao[i] + "\n";
+    // escreve o relatório direto no destino, sem Strings intermediárias: custo linear na
+    // capacidade (números são escritos dígito a dígito)
+    void appendTo(Appendable out) throws IOException {
+        out.append("==== ").append(titulo).append(" ====\n");
+        out.append("Tamanho (size): "); escreverNumero(out, tamanho); out.append('\n');
+        out.append("Capacidade: "); escreverNumero(out, capacidade); out.append('\n');
+        out.append("Colisoes totais (insercao): "); escreverNumero(out, colisoesTotais); out.append('\n');
+        out.append("Tempo de insercao (ns): "); escreverNumero(out, tempoInsercaoNs); out.append('\n');
+        out.append("Tempo de busca (ns): "); escreverNumero(out, tempoBuscaNs); out.append('\n');
+        out.append("Buckets nao-vazios: "); escreverNumero(out, baldesNaoVazios); out.append('\n');
+        out.append("Tamanho maximo de cadeia: "); escreverNumero(out, cadeiaMaxima); out.append('\n');
+        out.append("Tamanho medio das cadeias (apenas buckets nao-vazios): ");
+        escreverDecimal(out, mediaCadeiaNaoVazia, 3);
+        out.append('\n');
+        if (!Double.isNaN(bitsPorChave)) {
+            out.append("Bits por chave (funcao perfeita): ");
+            escreverDecimal(out, bitsPorChave, 3);
+            out.append('\n');
+        }
+        if (resemeaduras >= 0) {
+            out.append("Resemeaduras (guarda contra cadeias longas): "); escreverNumero(out, resemeaduras);
+            out.append('\n');
         }
+        escreverPercentis(out, "Latencia insert (ns): ", latInsercao);
+        escreverPercentis(out, "Latencia contains (ns): ", latBusca);
+        escreverPercentis(out, "Nos sondados por contains: ", sondagensBusca);
+        if (filtro != null) {
+            out.append("Filtro de Bloom ("); escreverNumero(out, filtro.bitCount());
+            out.append(" bits, k="); escreverNumero(out, filtro.hashCount());
+            out.append("): rejeitadas="); escreverNumero(out, filtro.negatives());
+            out.append(" acertos="); escreverNumero(out, filtro.truePositives());
+            out.append(" falsos positivos="); escreverNumero(out, filtro.falsePositives());
+            out.append(" (taxa "); escreverDecimal(out, filtro.observedFalsePositiveRate(), 4);
+            out.append(")\n");
+        }
+
+        out.append("\nDistribuicao (#chaves por posicao):\n");
+        escreverPosicoes(out, distribuicao);
 
-        s = s + "\nColisoes por posicao (tamanhoDaCadeia-1, minimo 0):\n";
-        for (int i = 0; i < colisoesPorPosicao.length; i++) {
-            s = s + doisDigitos(i) + ": " + colisoesPorPosicao[i] + "\n";
+        out.append("\nColisoes por posicao (tamanhoDaCadeia-1, minimo 0):\n");
+        escreverPosicoes(out, colisoesPorPosicao);
+    }
+
+    // "p50=120 p99=480 p99.9=2100 max=9800 (n=5000)"; nada se o histograma não existe
+    private static void escreverPercentis(Appendable out, String rotulo, LatencyHistogram h) throws IOException {
+        if (h == null) return;
+        out.append(rotulo);
+        out.append("p50="); escreverNumero(out, h.percentile(50.0));
+        out.append(" p99="); escreverNumero(out, h.percentile(99.0));
+        out.append(" p99.9="); escreverNumero(out, h.percentile(99.9));
+        out.append(" max="); escreverNumero(out, h.max());
+        out.append(" (n="); escreverNumero(out, h.count());
+        out.append(")\n");
+    }
+
+    // "07: 12" por linha
+    private static void escreverPosicoes(Appendable out, int[] vetor) throws IOException {
+        for (int i = 0; i < vetor.length; i++) {
+            if (i < 10) out.append('0');
+            escreverNumero(out, i);
+            out.append(':').append(' ');
+            escreverNumero(out, vetor[i]);
+            out.append('\n');
         }
-        return s;
     }
 
-    // Formata um double com N casas decimais sem usar String.format/Locale
-    private String formatarDecimal(double valor, int casas) {
-        // arredonda simples: multiplica, arredonda, divide
-        double mult = pot10(casas);
+    // N casas decimais sem String.format/Locale: arredonda simples (multiplica, arredonda, divide)
+    private static void escreverDecimal(Appendable out, double valor, int casas) throws IOException {
+        long mult = pot10(casas);
         long inteiro = (long) (valor * mult + 0.5d);
-        long parteInt = inteiro / (long) mult;
-        long parteDec = inteiro % (long) mult;
+        escreverNumero(out, inteiro / mult);
+        out.append('.');
+        long parteDec = inteiro % mult;
+        // zeros à esquerda
+        for (long p = mult / 10; p > 1 && parteDec < p; p = p / 10) out.append('0');
+        escreverNumero(out, parteDec);
+    }
 
-        String s = "" + parteInt;
-        s = s + ".";
-        String dec = "" + parteDec;
-        // completa com zeros à esquerda
-        while (dec.length() < casas) dec = "0" + dec;
-        s = s + dec;
-        return s;
+    // dígito a dígito, do mais significativo para o menos (trabalha com negativos para
+    // cobrir Long.MIN_VALUE)
+    static void escreverNumero(Appendable out, long v) throws IOException {
+        if (v >= 0) v = -v;
+        else out.append('-');
+        long p = -1;
+        while (p >= Long.MIN_VALUE / 10 && p * 10 >= v) p = p * 10;
+        for (; p != 0; p = p / 10) {
+            long d = v / p; // 0..9
+            out.append((char) ('0' + d));
+            v = v - d * p;
+        }
     }
 
-    private long pot10(int n) {
+    private static long pot10(int n) {
         long r = 1;
         for (int i = 0; i < n; i++) r = r * 10L;
         return r;
     }
-
-    private String doisDigitos(int v) {
-        if (v < 10) return "0" + v;
-        return "" + v;
-    }
 }
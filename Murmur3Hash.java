@@ -0,0 +1,77 @@
+// MurmurHash3 x64_128 sobre os bytes UTF-16LE da chave (duas pistas de 8 bytes por
+// bloco de 16); usa a metade h1 dobrada para 32 bits.
+final class Murmur3Hash implements HashFunction {
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    private final long semente;
+
+    Murmur3Hash(long semente) { this.semente = semente; }
+
+    @Override
+    public int hash(String chave) {
+        return KeyBytes.fold(hash64(chave));
+    }
+
+    long hash64(String chave) {
+        int len = KeyBytes.length(chave);
+        long h1 = semente;
+        long h2 = semente;
+        int p = 0;
+
+        for (; p + 16 <= len; p += 16) {
+            long k1 = KeyBytes.long64(chave, p);
+            long k2 = KeyBytes.long64(chave, p + 8);
+
+            h1 ^= misturaK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52DCE729;
+
+            h2 ^= misturaK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495AB5;
+        }
+
+        int resto = len - p;
+        if (resto > 8) h2 ^= misturaK2(KeyBytes.tail(chave, p + 8, resto - 8));
+        if (resto > 0) h1 ^= misturaK1(KeyBytes.tail(chave, p, Math.min(resto, 8)));
+
+        h1 ^= len;
+        h2 ^= len;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        return h1;
+    }
+
+    private static long misturaK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long misturaK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB9FE1A85EC53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    @Override
+    public HashFunction withSeed(long semente) { return new Murmur3Hash(semente); }
+
+    @Override
+    public String name() { return "murmur3"; }
+}
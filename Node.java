@@ -1,5 +1,7 @@
 final class Node {
     final String chave;
+    final int hash; // hash completo (antes do mod), comparado antes do equals
     Node proximo;
-    Node(String chave) { this.chave = chave; }
+    int acessos;    // só usado pela ChainPolicy.COUNT
+    Node(String chave, int hash) { this.chave = chave; this.hash = hash; }
 }
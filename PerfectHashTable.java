@@ -0,0 +1,196 @@
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Tabela somente leitura sobre uma função de hash perfeita mínima no estilo CHD
+// ("hash, displace and compress"): as n chaves vão para n posições sem nenhuma colisão.
+//
+// Construção: o xxHash64 da chave escolhe um balde de primeiro nível (~LAMBDA chaves por
+// balde). Os baldes são tratados do maior para o menor; para cada um procura-se o menor
+// deslocamento d >= 1 que manda todas as suas chaves (posicao(hv, d)) para posições ainda
+// livres, e guarda-se d em desloc[balde]. Baldes de uma chave só, que ficam para o fim,
+// vão direto para uma posição livre qualquer, guardada como -posicao - 1.
+// Se algum balde não encaixa (ou duas chaves distintas têm o mesmo hash de 64 bits) a
+// construção recomeça com outra semente.
+//
+// contains: um hash, uma leitura em desloc, uma posição e uma verificação da chave.
+final class PerfectHashTable implements HashTable {
+    private static final int LAMBDA = 5;                // chaves por balde de primeiro nível
+    private static final int MAX_DESLOC = 1 << 20;      // tentativas por balde antes de trocar a semente
+    private static final int MAX_SEMENTES = 64;
+    private static final long DOURADO = 0x9E3779B97F4A7C15L;
+
+    private final XxHash64 funcao;
+    private final int[] desloc;      // por balde: d >= 1, -posicao - 1 (balde unitário) ou 0 (vazio)
+    private final String[] chaves;   // por posição
+    private final int[] impressoes;  // 32 bits baixos do hash, descartam quase toda ausente sem equals
+
+    private PerfectHashTable(XxHash64 funcao, int[] desloc, String[] chaves, int[] impressoes) {
+        this.funcao = funcao;
+        this.desloc = desloc;
+        this.chaves = chaves;
+        this.impressoes = impressoes;
+    }
+
+    // duplicatas na entrada são ignoradas (como no insert das outras tabelas)
+    static PerfectHashTable build(String[] entrada) {
+        for (int i = 0; i < entrada.length; i++) {
+            if (entrada[i] == null) throw new NullPointerException("chave nula");
+        }
+        for (int s = 0; s < MAX_SEMENTES; s++) {
+            PerfectHashTable t = tentar(entrada, new XxHash64(s * DOURADO));
+            if (t != null) return t;
+        }
+        throw new IllegalStateException("nao foi possivel montar a funcao perfeita com " + MAX_SEMENTES + " sementes");
+    }
+
+    // null = esta semente não serve
+    private static PerfectHashTable tentar(String[] entrada, XxHash64 f) {
+        int total = entrada.length;
+        long[] hv = new long[total];
+        for (int i = 0; i < total; i++) hv[i] = f.hash64(entrada[i]);
+
+        int r = Math.max(1, (total + LAMBDA - 1) / LAMBDA);
+        // agrupa por balde (contagem + prefixo)
+        int[] inicio = new int[r + 1];
+        for (int i = 0; i < total; i++) inicio[balde(hv[i], r) + 1]++;
+        for (int b = 0; b < r; b++) inicio[b + 1] = inicio[b + 1] + inicio[b];
+        int[] membros = new int[total];
+        int[] livre = Arrays.copyOf(inicio, r);
+        for (int i = 0; i < total; i++) membros[livre[balde(hv[i], r)]++] = i;
+
+        // tira duplicatas dentro de cada balde; mesmo hv com chaves diferentes = troca a semente
+        int[] tamBalde = new int[r];
+        int n = 0;
+        int maiorBalde = 0;
+        for (int b = 0; b < r; b++) {
+            int fim = inicio[b];
+            for (int p = inicio[b]; p < inicio[b + 1]; p++) {
+                int i = membros[p];
+                boolean repetida = false;
+                for (int q = inicio[b]; q < fim; q++) {
+                    int j = membros[q];
+                    if (hv[j] != hv[i]) continue;
+                    if (!entrada[j].equals(entrada[i])) return null;
+                    repetida = true;
+                    break;
+                }
+                if (!repetida) membros[fim++] = i;
+            }
+            tamBalde[b] = fim - inicio[b];
+            n = n + tamBalde[b];
+            if (tamBalde[b] > maiorBalde) maiorBalde = tamBalde[b];
+        }
+
+        // baldes do maior para o menor (contagem por tamanho)
+        int[] porTamanho = new int[maiorBalde + 2];
+        for (int b = 0; b < r; b++) porTamanho[maiorBalde - tamBalde[b] + 1]++;
+        for (int t = 0; t <= maiorBalde; t++) porTamanho[t + 1] = porTamanho[t + 1] + porTamanho[t];
+        int[] ordem = new int[r];
+        for (int b = 0; b < r; b++) ordem[porTamanho[maiorBalde - tamBalde[b]]++] = b;
+
+        int m = n;
+        boolean[] ocupada = new boolean[m];
+        int[] desloc = new int[r];
+        String[] chaves = new String[m];
+        int[] impressoes = new int[m];
+        int[] pos = new int[maiorBalde];
+        int proximaLivre = 0;
+
+        for (int k = 0; k < r; k++) {
+            int b = ordem[k];
+            int s = tamBalde[b];
+            if (s == 0) break; // daqui em diante só baldes vazios
+            if (s == 1) {
+                while (ocupada[proximaLivre]) proximaLivre++;
+                colocar(membros[inicio[b]], proximaLivre, entrada, hv, ocupada, chaves, impressoes);
+                desloc[b] = -proximaLivre - 1;
+                continue;
+            }
+            int d = 1;
+            while (!encaixa(membros, inicio[b], s, hv, d, m, ocupada, pos)) {
+                d = d + 1;
+                if (d > MAX_DESLOC) return null;
+            }
+            for (int j = 0; j < s; j++) colocar(membros[inicio[b] + j], pos[j], entrada, hv, ocupada, chaves, impressoes);
+            desloc[b] = d;
+        }
+        return new PerfectHashTable(f, desloc, chaves, impressoes);
+    }
+
+    // todas as s chaves do balde em posições livres e distintas entre si (posições em pos)
+    private static boolean encaixa(int[] membros, int ini, int s, long[] hv, int d, int m,
+                                   boolean[] ocupada, int[] pos) {
+        for (int j = 0; j < s; j++) {
+            int p = posicao(hv[membros[ini + j]], d, m);
+            if (ocupada[p]) return false;
+            for (int q = 0; q < j; q++) if (pos[q] == p) return false;
+            pos[j] = p;
+        }
+        return true;
+    }
+
+    private static void colocar(int i, int p, String[] entrada, long[] hv,
+                                boolean[] ocupada, String[] chaves, int[] impressoes) {
+        ocupada[p] = true;
+        chaves[p] = entrada[i];
+        impressoes[p] = (int) hv[i];
+    }
+
+    // multiplicação-deslocamento em vez de %: (32 bits altos * n) >>> 32 fica em [0, n)
+    private static int balde(long hv, int r) {
+        return (int) (((hv >>> 32) * r) >>> 32);
+    }
+
+    private static int posicao(long hv, int d, int m) {
+        long x = hv + d * DOURADO;
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL; // fmix64 do MurmurHash3
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        x = x ^ (x >>> 33);
+        return (int) (((x >>> 32) * m) >>> 32);
+    }
+
+    @Override
+    public void insert(String chave) {
+        throw new UnsupportedOperationException("tabela perfeita e somente leitura");
+    }
+
+    @Override
+    public boolean contains(String chave) {
+        if (chave == null) throw new NullPointerException("chave nula");
+        int m = chaves.length;
+        if (m == 0) return false;
+        long hv = funcao.hash64(chave);
+        int g = desloc[balde(hv, desloc.length)];
+        int p = g < 0 ? -g - 1 : posicao(hv, g, m);
+        return impressoes[p] == (int) hv && chaves[p].equals(chave);
+    }
+
+    // só a função (vetor de deslocamentos), sem as chaves guardadas para verificação
+    double bitsPerKey() {
+        if (chaves.length == 0) return 0.0;
+        return 32.0 * desloc.length / chaves.length;
+    }
+
+    @Override public int size() { return chaves.length; }
+    @Override public int capacity() { return chaves.length; }
+    @Override public long collisionsTotal() { return 0; }
+    @Override public HashFunction hashFunction() { return funcao; }
+
+    // mínima: toda posição tem exatamente uma chave
+    @Override
+    public int[] distribution() {
+        int[] dist = new int[chaves.length];
+        Arrays.fill(dist, 1);
+        return dist;
+    }
+
+    @Override public int[] collisionsPerBucket() { return new int[chaves.length]; }
+    @Override public int maxChainLength() { return chaves.length == 0 ? 0 : 1; }
+    @Override public int nonEmptyBuckets() { return chaves.length; }
+    @Override public double avgChainLenNonEmpty() { return chaves.length == 0 ? 0.0 : 1.0; }
+
+    @Override
+    public void forEachKey(Consumer<? super String> destino) {
+        for (int i = 0; i < chaves.length; i++) destino.accept(chaves[i]);
+    }
+}
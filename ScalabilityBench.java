@@ -0,0 +1,193 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Varredura de escalabilidade: gerador de chaves x número de chaves x capacidade x tabela,
+// uma linha CSV por combinação com vazão de insert/contains, memória por chave e as
+// métricas de cadeia. Cada medição é a mediana de --repeticoes construções novas.
+//
+// Uso: java -Xmx8g ScalabilityBench [--geradores=nomes,ids,prefixo,quase]
+//          [--tamanhos=10000,100000,1000000] [--capacidades=32,n/0.75,n/4]
+//          [--tabelas=HashTable1,HashTable2,LinearProbing,Arena,Cuckoo]
+//          [--repeticoes=3] [--carga-max=512] [--csv=escalabilidade.csv]
+//
+// Capacidade: número de baldes, ou "n/x" = número de chaves / x (x = carga desejada).
+// HashTable1/2 ficam com a capacidade pedida fixa (fator de carga 0, sem o teto de 32). Para
+// LinearProbing e Cuckoo a capacidade é só a inicial (elas crescem sozinhas).
+// Custo: nas tabelas de capacidade fixa cada insert percorre a cadeia inteira, então montar
+// n chaves em m baldes custa ~n²/2m comparações (100.000 chaves em 32 baldes: ~24 s por
+// tabela e repetição; 1.000.000, ~100x isso). Combinações com mais de --carga-max chaves por
+// balde nessas tabelas são puladas (aviso no console, sem linha no CSV); 0 = sem limite.
+// Memória por chave = heap usado a mais depois de montar a tabela (as Strings das chaves
+// já existiam antes, exceto na Arena, que copia os bytes); é aproximada (depende do GC) e,
+// para poucas chaves, o ruído do heap pode zerá-la.
+public final class ScalabilityBench {
+    private static final long SEMENTE = 0x5EEDL;
+    private static volatile long sumidouro;
+
+    private ScalabilityBench() {}
+
+    public static void main(String[] args) throws Exception {
+        String[] geradores = KeyGenerators.TIPOS;
+        int[] tamanhos = { 10_000, 100_000, 1_000_000 };
+        String[] capacidades = { "32", "n/0.75", "n/4" };
+        String[] tabelas = { "HashTable1", "HashTable2", "LinearProbing", "Arena", "Cuckoo" };
+        int repeticoes = 3;
+        int cargaMax = 512;
+        String csv = "escalabilidade.csv";
+
+        for (String a : args) {
+            if (a.startsWith("--geradores=")) geradores = valor(a).split(",");
+            else if (a.startsWith("--tamanhos=")) tamanhos = inteiros(valor(a).split(","));
+            else if (a.startsWith("--capacidades=")) capacidades = valor(a).split(",");
+            else if (a.startsWith("--tabelas=")) tabelas = valor(a).split(",");
+            else if (a.startsWith("--repeticoes=")) repeticoes = Integer.parseInt(valor(a));
+            else if (a.startsWith("--carga-max=")) cargaMax = Integer.parseInt(valor(a));
+            else if (a.startsWith("--csv=")) csv = valor(a);
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+        if (repeticoes < 1) throw new IllegalArgumentException("repeticoes deve ser >= 1: " + repeticoes);
+
+        aquecer(tabelas);
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8)) {
+            String cabecalho = "gerador,chaves,capacidade_pedida,tabela,capacidade_final,insert_ops_s,"
+                    + "hit_ops_s,miss_ops_s,bytes_por_chave,colisoes,cadeia_max,cadeia_media,baldes_nao_vazios";
+            out.write(cabecalho);
+            out.write('\n');
+            System.out.println(cabecalho);
+
+            for (String gerador : geradores) {
+                for (int n : tamanhos) {
+                    String[] chaves = KeyGenerators.generate(gerador, n, SEMENTE);
+                    String[] ausentes = new String[n];
+                    for (int i = 0; i < n; i++) ausentes[i] = chaves[i] + '~'; // mesmo formato, nenhuma presente
+                    for (String cap : capacidades) {
+                        int capacidade = resolverCapacidade(cap, n);
+                        for (String tabela : tabelas) {
+                            if (cargaMax > 0 && !cresceSozinha(tabela) && (double) n / capacidade > cargaMax) {
+                                System.out.println("pulando " + gerador + " n=" + n + " cap=" + cap + " " + tabela
+                                        + ": " + n / capacidade + " chaves por balde (> --carga-max=" + cargaMax + ")");
+                                continue;
+                            }
+                            String linha = gerador + "," + n + "," + cap + "," + tabela + ","
+                                    + medir(tabela, capacidade, chaves, ausentes, repeticoes);
+                            out.write(linha);
+                            out.write('\n');
+                            out.flush();
+                            System.out.println(linha);
+                        }
+                    }
+                }
+            }
+        }
+        System.out.println("CSV gerado em: " + new File(csv).getAbsolutePath());
+    }
+
+    // capacidade_final,insert_ops_s,hit_ops_s,miss_ops_s,bytes_por_chave,colisoes,cadeia_max,cadeia_media,baldes_nao_vazios
+    private static String medir(String tipo, int capacidade, String[] chaves, String[] ausentes, int repeticoes) {
+        int n = chaves.length;
+        double[] insercao = new double[repeticoes];
+        double[] acertos = new double[repeticoes];
+        double[] falhas = new double[repeticoes];
+        double[] bytes = new double[repeticoes];
+        HashTable t = null;
+
+        for (int r = 0; r < repeticoes; r++) {
+            t = null;
+            long antes = heapUsado();
+            t = ExperimentRunner.newTable(tipo, capacidade);
+            long t0 = System.nanoTime();
+            for (int i = 0; i < n; i++) t.insert(chaves[i]);
+            long t1 = System.nanoTime();
+            if (t instanceof AbstractHashTable) ((AbstractHashTable) t).completeResize();
+            bytes[r] = (double) Math.max(0L, heapUsado() - antes) / Math.max(1, n);
+
+            long s = 0;
+            long t2 = System.nanoTime();
+            for (int i = 0; i < n; i++) if (t.contains(chaves[i])) s++;
+            long t3 = System.nanoTime();
+            for (int i = 0; i < n; i++) if (t.contains(ausentes[i])) s++;
+            long t4 = System.nanoTime();
+            sumidouro += s;
+
+            insercao[r] = opsPorSegundo(n, t1 - t0);
+            acertos[r] = opsPorSegundo(n, t3 - t2);
+            falhas[r] = opsPorSegundo(n, t4 - t3);
+        }
+
+        return t.capacity() + "," + Math.round(mediana(insercao)) + "," + Math.round(mediana(acertos)) + ","
+                + Math.round(mediana(falhas)) + "," + arredonda(mediana(bytes)) + "," + t.collisionsTotal() + ","
+                + t.maxChainLength() + "," + arredonda(t.avgChainLenNonEmpty()) + "," + t.nonEmptyBuckets();
+    }
+
+    // as que aumentam a capacidade sozinhas (as demais ficam com a pedida, ver newTable)
+    private static boolean cresceSozinha(String tipo) {
+        return tipo.equals("LinearProbing") || tipo.equals("Cuckoo");
+    }
+
+    private static int resolverCapacidade(String cap, int n) {
+        if (cap.startsWith("n/")) {
+            double carga = Double.parseDouble(cap.substring(2));
+            if (!(carga > 0.0)) throw new IllegalArgumentException("carga deve ser > 0: " + cap);
+            return (int) Math.max(1, Math.min(Integer.MAX_VALUE / 8, Math.ceil(n / carga)));
+        }
+        return Integer.parseInt(cap);
+    }
+
+    // algumas construções pequenas de cada tabela antes de medir, para o JIT compilar os laços
+    private static void aquecer(String[] tabelas) {
+        String[] chaves = KeyGenerators.randomNames(50_000, SEMENTE + 1);
+        for (int rodada = 0; rodada < 3; rodada++) {
+            for (String tipo : tabelas) {
+                HashTable t = ExperimentRunner.newTable(tipo, 1 << 14);
+                for (String k : chaves) t.insert(k);
+                long s = 0;
+                for (String k : chaves) if (t.contains(k)) s++;
+                sumidouro += s;
+            }
+        }
+    }
+
+    // chama o GC até o heap usado parar de cair (um System.gc() sozinho nem sempre basta)
+    private static long heapUsado() {
+        Runtime rt = Runtime.getRuntime();
+        long usado = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long agora = rt.totalMemory() - rt.freeMemory();
+            if (agora >= usado) return agora;
+            usado = agora;
+        }
+        return usado;
+    }
+
+    private static double opsPorSegundo(int ops, long ns) {
+        return ns <= 0 ? 0.0 : ops * 1e9 / ns;
+    }
+
+    private static double mediana(double[] v) {
+        double[] c = v.clone();
+        Arrays.sort(c);
+        int m = c.length / 2;
+        return c.length % 2 == 1 ? c[m] : (c[m - 1] + c[m]) / 2.0;
+    }
+
+    private static int[] inteiros(String[] partes) {
+        int[] r = new int[partes.length];
+        for (int i = 0; i < partes.length; i++) r[i] = Integer.parseInt(partes[i].replace("_", ""));
+        return r;
+    }
+
+    private static String arredonda(double v) {
+        return Double.toString(Math.round(v * 100.0) / 100.0);
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+}
@@ -0,0 +1,318 @@
+// Autoverificação executável (o repositório não usa framework de testes): confere vetores de
+// referência das funções de hash e propriedades que as tabelas prometem. Para na primeira
+// falha com IllegalStateException (código de saída != 0).
+//
+// Uso: java SelfCheck
+//
+// Os vetores sobre UTF-16LE foram calculados com implementações de referência conferidas
+// antes com os vetores publicados (os de bytes puros, como SipHash de 00..0e, são os oficiais).
+public final class SelfCheck {
+    private static int verificacoes;
+
+    private SelfCheck() {}
+
+    public static void main(String[] args) throws Exception {
+        vetoresDeHash();
+        sipHashEGuarda();
+        consultasSemAlocar();
+        lotesComoChaveAChave();
+        hashPerfeito();
+        idaEVoltaArena();
+        idaEVoltaSnapshot();
+        fatiasAposAddShard();
+        System.out.println("SelfCheck: " + verificacoes + " verificacoes ok");
+    }
+
+    // xxHash64 e Murmur3 (x64_128, primeira metade) sobre os bytes UTF-16LE da chave
+    private static void vetoresDeHash() {
+        String[] chaves = { "", "Ana", "Maria Eduarda", "chave de 32 bytes ou mais, em UTF-16", "ação" };
+        long[] xx = { 0xEF46DB3751D8E999L, 0x831A9E15463EE1F3L, 0x59AD82528DED794BL, 0x571F640F18F8193AL, 0xB78C268EDB5AA702L };
+        long[] xxSemente = { 0x1BF3D72CFBA5CCBEL, 0x47CE58B5164B869EL, 0x51D75184252C7ACAL, 0x07C7336CDA52B869L, 0xD135A4747622B390L };
+        long[] murmur = { 0L, 0xE8C59948D93F6785L, 0x6261F057ECF7D442L, 0x6FB539C74280607FL, 0xEBB1A057C5AEC0BCL };
+        XxHash64 x0 = new XxHash64(0L);
+        XxHash64 x1 = new XxHash64(0x5A4DL);
+        Murmur3Hash m0 = new Murmur3Hash(0L);
+        for (int i = 0; i < chaves.length; i++) {
+            verificar(x0.hash64(chaves[i]) == xx[i], "xxhash64(\"" + chaves[i] + "\")");
+            verificar(x1.hash64(chaves[i]) == xxSemente[i], "xxhash64 semente 0x5A4D (\"" + chaves[i] + "\")");
+            verificar(m0.hash64(chaves[i]) == murmur[i], "murmur3(\"" + chaves[i] + "\")");
+        }
+        // hash(CharSequence) e hash(char[]) têm de bater com hash(String)
+        for (String nome : new String[] { "fnv1a", "djb2", "xxhash64", "murmur3", "wyhash", "siphash" }) {
+            HashFunction f = HashFunction.byName(nome);
+            for (String k : chaves) {
+                char[] c = ("##" + k).toCharArray();
+                verificar(f.hash(new StringBuilder(k)) == f.hash(k), nome + " CharSequence (\"" + k + "\")");
+                verificar(f.hash(c, 2, k.length()) == f.hash(k), nome + " char[] (\"" + k + "\")");
+            }
+        }
+    }
+
+    // SipHash-2-4 com a chave 00..0f: vetores oficiais (mensagens 00 01 02 ...) e UTF-16LE;
+    // depois chaves que colidem todas (função constante) com a guarda ligada: a tabela tem
+    // de trocar para SipHash e voltar a cadeias do tamanho esperado para a carga (a semente não
+    // muda a função, como nas colisões que valem para qualquer valor inicial)
+    private static void sipHashEGuarda() {
+        SipHash s = new SipHash(0x0706050403020100L, 0x0F0E0D0C0B0A0908L);
+        verificar(s.hash64(deBytes(0)) == 0x726FDB47DD0E0E31L, "siphash vetor oficial 0 bytes");
+        verificar(s.hash64(deBytes(8)) == 0x93F5F5799A932462L, "siphash vetor oficial 8 bytes");
+        verificar(s.hash64(deBytes(16)) == 0x3F2ACC7F57C29BDBL, "siphash 16 bytes");
+        verificar(s.hash64(deBytes(64)) == 0xACD2C40B8502CAD8L, "siphash 64 bytes");
+        verificar(s.hash64("Ana") == 0x99B500E87FCCB556L, "siphash(\"Ana\")");
+        verificar(s.hash64("Maria Eduarda") == 0xB5566528430F37D8L, "siphash(\"Maria Eduarda\")");
+        verificar(s.hash64("ação") == 0xEEFB90BB05059A08L, "siphash(\"ação\")");
+
+        HashFunction constante = new HashFunction() {
+            @Override public int hash(String chave) { return 42; }
+            @Override public String name() { return "constante"; }
+            @Override public HashFunction withSeed(long semente) { return this; }
+        };
+        String[] chaves = KeyGenerators.randomNames(20_000, 0x22L);
+        ChainedHashTable t = new ChainedHashTable(1024, 0.75, constante);
+        t.setReseedGuard(true);
+        for (String k : chaves) t.insert(k);
+        verificar(t.reseeds() >= 1 && t.hashFunction() instanceof SipHash, "guarda trocou para siphash");
+        verificar(t.maxChainLength() <= t.expectedMaxChain(), "cadeia maxima " + t.maxChainLength()
+                + " <= " + t.expectedMaxChain());
+        verificar(t.size() == contarDistintas(chaves), "guarda manteve todas as chaves");
+        verificar(todasContidas(t, chaves), "guarda: contains de todas as chaves");
+    }
+
+    // contains(char[]) e contains(byte[] UTF-8) respondem como contains(String) e, depois do
+    // aquecimento, não alocam (contador de bytes alocados da própria thread, HotSpot); a folga
+    // de 1 byte por consulta só cobre ruído do JIT, uma String por consulta seriam dezenas
+    private static void consultasSemAlocar() {
+        String[] chaves = KeyGenerators.randomNames(20_000, 0x20L);
+        HashTable1 t = new HashTable1(1024, 0.75);
+        for (int i = 0; i < chaves.length; i += 2) t.insert(chaves[i]);
+        char[][] cs = new char[chaves.length][];
+        byte[][] bs = new byte[chaves.length][];
+        for (int i = 0; i < chaves.length; i++) {
+            cs[i] = chaves[i].toCharArray();
+            bs[i] = chaves[i].getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        }
+        boolean iguais = true;
+        for (int i = 0; i < chaves.length; i++) {
+            boolean esperado = t.contains(chaves[i]);
+            iguais &= t.contains(cs[i], 0, cs[i].length) == esperado && t.contains(bs[i], 0, bs[i].length) == esperado;
+        }
+        verificar(iguais, "contains(char[]) e contains(byte[]) iguais a contains(String)");
+
+        java.lang.management.ThreadMXBean mx = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) mx).isThreadAllocatedMemorySupported()) {
+            System.out.println("SelfCheck: JVM sem contador de alocacao, verificacao de alocacao pulada");
+            return;
+        }
+        com.sun.management.ThreadMXBean alocacao = (com.sun.management.ThreadMXBean) mx;
+        long achou = 0;
+        for (int r = 0; r < 30; r++) achou += consultar(t, cs, bs); // aquecimento (JIT)
+        long antes = alocacao.getCurrentThreadAllocatedBytes();
+        for (int r = 0; r < 10; r++) achou += consultar(t, cs, bs);
+        long alocados = alocacao.getCurrentThreadAllocatedBytes() - antes;
+        long consultas = 10L * 2 * chaves.length;
+        verificar(alocados < consultas, "consultas sem alocar: " + alocados + " bytes em " + consultas
+                + " consultas (" + achou + " achadas)");
+    }
+
+    private static long consultar(HashTable t, char[][] cs, byte[][] bs) {
+        long achou = 0;
+        for (int i = 0; i < cs.length; i++) {
+            if (t.contains(cs[i], 0, cs[i].length)) achou++;
+            if (t.contains(bs[i], 0, bs[i].length)) achou++;
+        }
+        return achou;
+    }
+
+    // insertBatch/containsBatch dão o mesmo que o laço de insert/contains: mesmo tamanho, mesma
+    // distribuição pelos baldes e as mesmas respostas, com lotes que não fecham grupo, duplicatas
+    // dentro do lote, migração incremental em andamento, filtro de Bloom e índice ordenado
+    private static void lotesComoChaveAChave() {
+        String[] base = KeyGenerators.randomNames(20_000, 0x25L);
+        String[] chaves = java.util.Arrays.copyOf(base, base.length + 3000);
+        System.arraycopy(base, 0, chaves, base.length, 3000); // duplicatas
+        String[] consultas = new String[chaves.length * 2];
+        for (int i = 0; i < chaves.length; i++) {
+            consultas[2 * i] = chaves[i];
+            consultas[2 * i + 1] = chaves[i] + '~';
+        }
+        for (int caso = 0; caso < 3; caso++) {
+            AbstractHashTable umaAUma = novaTabelaLote(caso);
+            AbstractHashTable emLote = novaTabelaLote(caso);
+            for (String k : chaves) umaAUma.insert(k);
+            for (int ini = 0; ini < chaves.length; ini += 37) {
+                emLote.insertBatch(java.util.Arrays.copyOfRange(chaves, ini, Math.min(chaves.length, ini + 37)));
+            }
+            String nome = "lote caso " + caso;
+            verificar(umaAUma.size() == emLote.size() && emLote.size() == base.length, nome + ": tamanho");
+            verificar(java.util.Arrays.equals(umaAUma.distribution(), emLote.distribution()), nome + ": distribuicao");
+            boolean[] saida = new boolean[consultas.length];
+            emLote.containsBatch(consultas, saida);
+            boolean iguais = true;
+            for (int i = 0; i < consultas.length; i++) iguais &= saida[i] == umaAUma.contains(consultas[i]);
+            verificar(iguais, nome + ": containsBatch = contains");
+        }
+    }
+
+    private static AbstractHashTable novaTabelaLote(int caso) {
+        switch (caso) {
+            case 0: return new HashTable1(1024, 0.0);
+            case 1: return new HashTable2(16, 0.75); // cresce no meio dos lotes
+            default:
+                ChainedHashTable t = new ChainedHashTable(256, 0.0, new XxHash64(7L));
+                t.enableBloomFilter(20_000, 0.01);
+                t.setSortedBucketThreshold(AbstractHashTable.LIMIAR_ORDENAR_PADRAO);
+                return t;
+        }
+    }
+
+    // CHD: cada chave distinta cai em exatamente uma posição (forEachKey devolve cada uma uma
+    // vez, sem sobra de posições), todas são achadas e as ausentes não; entrada vazia também
+    private static void hashPerfeito() {
+        String[] base = KeyGenerators.randomNames(50_000, 0x16L);
+        String[] entrada = java.util.Arrays.copyOf(base, base.length + 1000);
+        System.arraycopy(base, 0, entrada, base.length, 1000); // duplicatas
+        int distintas = contarDistintas(entrada);
+        PerfectHashTable t = PerfectHashTable.build(entrada);
+        java.util.Set<String> vistas = new java.util.HashSet<>();
+        int[] visitas = { 0 };
+        t.forEachKey(k -> {
+            visitas[0]++;
+            vistas.add(k);
+        });
+        verificar(t.size() == distintas && visitas[0] == distintas && vistas.size() == distintas,
+                "perfeita: " + distintas + " chaves, uma por posicao");
+        verificar(todasContidas(t, entrada), "perfeita: todas achadas");
+        boolean algumaFantasma = false;
+        for (String k : base) algumaFantasma |= t.contains(k + '~');
+        verificar(!algumaFantasma, "perfeita: nenhuma ausente achada");
+        verificar(t.bitsPerKey() < 8.0, "perfeita: " + t.bitsPerKey() + " bits por chave");
+        verificar(!PerfectHashTable.build(new String[0]).contains("Ana"), "perfeita: vazia");
+    }
+
+    // arena de bytes: toda String volta igual pelo forEachKey e é achada, inclusive as que não
+    // são UTF-16 válido (surrogate solto), que não podem se confundir com "?"
+    private static void idaEVoltaArena() {
+        String[] especiais = { "", "Ana", "ação", "日本語", "😀x", "a\uD800", "a\uDC00b", "\uDC00\uD800", "a?",
+                "\uD83D\uDE00\uD800" };
+        String[] nomes = KeyGenerators.randomNames(20_000, 0x08L);
+        String[] chaves = java.util.Arrays.copyOf(nomes, nomes.length + especiais.length);
+        System.arraycopy(especiais, 0, chaves, nomes.length, especiais.length);
+        ArenaHashTable t = new ArenaHashTable(64, 0.75);
+        for (String k : chaves) t.insert(k);
+        verificar(t.size() == contarDistintas(chaves), "arena: tamanho");
+        verificar(todasContidas(t, chaves), "arena: todas achadas");
+        verificar(!t.contains("a\uDC00") && !t.contains("a??") && !t.contains("\uD800"), "arena: ausentes");
+        java.util.Set<String> devolvidas = new java.util.HashSet<>();
+        t.forEachKey(devolvidas::add);
+        verificar(devolvidas.equals(new java.util.HashSet<>(java.util.Arrays.asList(chaves))), "arena: forEachKey devolve as mesmas strings");
+    }
+
+    // snapshot mapeado: grava, recarrega e acha as mesmas chaves; isCurrent separa o dataset
+    // certo de um com uma chave trocada; arquivo truncado ou com vetor de baldes estragado
+    // falha já no load com IOException
+    private static void idaEVoltaSnapshot() throws java.io.IOException {
+        String[] chaves = KeyGenerators.randomNames(20_000, 0x15L);
+        HashTable1 origem = new HashTable1(1024, 0.0);
+        origem.insertAll(chaves);
+        java.nio.file.Path arquivo = java.nio.file.Files.createTempFile("selfcheck", ".snap");
+        java.nio.file.Path estragado = java.nio.file.Files.createTempFile("selfcheck", ".snap");
+        try {
+            MappedHashTable.save(origem, arquivo.toString());
+            MappedHashTable t = MappedHashTable.load(arquivo.toString());
+            verificar(t.size() == origem.size() && todasContidas(t, chaves), "snapshot: todas achadas");
+            boolean algumaFantasma = false;
+            for (String k : chaves) algumaFantasma |= t.contains(k + '~');
+            verificar(!algumaFantasma, "snapshot: nenhuma ausente achada");
+
+            verificar(MappedHashTable.isCurrent(arquivo.toString(), origem), "snapshot: atual para o mesmo dataset");
+            HashTable1 outra = new HashTable1(1024, 0.0);
+            outra.insertAll(chaves);
+            outra.insert("__NOVA__");
+            verificar(!MappedHashTable.isCurrent(arquivo.toString(), outra), "snapshot: velho com uma chave a mais");
+            String[] trocadas = chaves.clone();
+            trocadas[0] = "__TROCADA__";
+            HashTable1 trocada = new HashTable1(1024, 0.0);
+            trocada.insertAll(trocadas);
+            verificar(trocada.size() != origem.size() || !MappedHashTable.isCurrent(arquivo.toString(), trocada),
+                    "snapshot: velho com uma chave trocada");
+
+            byte[] bytes = java.nio.file.Files.readAllBytes(arquivo);
+            java.nio.ByteBuffer b = java.nio.ByteBuffer.wrap(bytes).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+            int offBaldes = (int) b.getLong(24);
+            b.putInt(offBaldes + 4 * 7, Integer.MAX_VALUE);
+            java.nio.file.Files.write(estragado, bytes);
+            verificar(falhaNoLoad(estragado), "snapshot: vetor de baldes estragado rejeitado no load");
+            java.nio.file.Files.write(estragado, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+            verificar(falhaNoLoad(estragado), "snapshot: arquivo truncado rejeitado no load");
+        } finally {
+            java.nio.file.Files.deleteIfExists(arquivo);
+            java.nio.file.Files.deleteIfExists(estragado);
+        }
+    }
+
+    private static boolean falhaNoLoad(java.nio.file.Path arquivo) {
+        try {
+            MappedHashTable.load(arquivo.toString());
+            return false;
+        } catch (java.io.IOException e) {
+            return true;
+        }
+    }
+
+    // modo fatiado (sobe JVMs ShardWorker locais): depois do addShard todas as chaves continuam
+    // lá, nenhuma ausente aparece, o total não muda e só se movem as chaves que a fatia nova
+    // passou a ter (nenhuma troca entre fatias antigas)
+    private static void fatiasAposAddShard() throws java.io.IOException {
+        String[] chaves = KeyGenerators.randomNames(30_000, 0x24L);
+        String[] ausentes = new String[chaves.length];
+        for (int i = 0; i < chaves.length; i++) ausentes[i] = chaves[i] + '~';
+        int distintas = contarDistintas(chaves);
+        java.util.List<String> nenhum = new java.util.ArrayList<>();
+        try (ShardCoordinator c = new ShardCoordinator(3, 128, nenhum, nenhum)) {
+            c.insertAll(chaves);
+            verificar(totalNasFatias(c.shardStats()) == distintas, "fatias: total antes do addShard");
+            int movidas = c.addShard();
+            int[][] stats = c.shardStats();
+            verificar(totalNasFatias(stats) == distintas, "fatias: total depois do addShard");
+            verificar(movidas == stats[stats.length - 1][0], "fatias: movidas " + movidas
+                    + " = chaves da fatia nova " + stats[stats.length - 1][0]);
+            verificar(movidas < distintas / 2, "fatias: movidas " + movidas + " de " + distintas
+                    + " (ideal ~" + distintas / 4 + ")");
+            verificar(todas(c.containsAll(chaves), true), "fatias: nenhuma chave perdida");
+            verificar(todas(c.containsAll(ausentes), false), "fatias: nenhuma chave fantasma");
+        }
+    }
+
+    private static int totalNasFatias(int[][] stats) {
+        int total = 0;
+        for (int[] e : stats) total += e[0];
+        return total;
+    }
+
+    private static boolean todas(boolean[] v, boolean valor) {
+        for (boolean b : v) if (b != valor) return false;
+        return true;
+    }
+
+    // String cujos bytes UTF-16LE são 00 01 02 ... (n - 1), n par (vetores oficiais de bytes)
+    private static String deBytes(int n) {
+        char[] c = new char[n / 2];
+        for (int i = 0; i < c.length; i++) c[i] = (char) ((2 * i) | ((2 * i + 1) << 8));
+        return new String(c);
+    }
+
+    private static boolean todasContidas(HashTable t, String[] chaves) {
+        for (String k : chaves) if (!t.contains(k)) return false;
+        return true;
+    }
+
+    private static int contarDistintas(String[] chaves) {
+        return new java.util.HashSet<>(java.util.Arrays.asList(chaves)).size();
+    }
+
+    private static void verificar(boolean condicao, String descricao) {
+        verificacoes = verificacoes + 1;
+        if (!condicao) throw new IllegalStateException("falhou: " + descricao);
+    }
+}
@@ -0,0 +1,364 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Modo fatiado: as chaves são repartidas entre N JVMs trabalhadoras locais (ShardWorker),
+// cada uma com sua tabela, seu heap e seu GC. A repartição é por hashing consistente: cada
+// fatia tem nosVirtuais pontos num anel de 64 bits (xxHash64 de "fatia-<id>#<v>") e a chave
+// vai para o dono do primeiro ponto >= xxHash64(chave), dando a volta no fim.
+//
+// Os pedidos vão em lotes de até LOTE chaves por fatia; cada rodada manda um lote a todas as
+// fatias e só depois lê as respostas, então as fatias trabalham em paralelo.
+//
+// addShard: os pontos novos tomam só as faixas (anterior, ponto] que eram dos sucessores no
+// anel antigo; só essas chaves mudam de processo (~1/(N+1) do total).
+//
+// Uso: java ShardCoordinator [--fatias=4] [--nos-virtuais=128] [--dataset=female_names.txt|nomes:N]
+//          [--adicionar=1] [--xmx=256m] [--hash=fnv1a|djb2|...]
+public final class ShardCoordinator implements Closeable {
+    private static final int LOTE = 8192;
+    private static final XxHash64 ANEL = new XxHash64(0x5A4DL);
+
+    private final int nosVirtuais;
+    private final List<String> argsJvm;   // para cada trabalhador (ex.: -Xmx256m)
+    private final List<String> argsWorker;
+    private final List<Fatia> fatias = new ArrayList<>();
+    private final TreeMap<Long, Integer> anel = new TreeMap<>();
+    // o anel achatado para a busca binária do caminho quente
+    private long[] pontos = new long[0];
+    private int[] donos = new int[0];
+
+    private static final class Fatia {
+        final Process processo;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Fatia(Process processo, Socket socket) throws IOException {
+            this.processo = processo;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+        }
+    }
+
+    ShardCoordinator(int qtdFatias, int nosVirtuais, List<String> argsJvm, List<String> argsWorker) throws IOException {
+        if (qtdFatias < 1) throw new IllegalArgumentException("fatias deve ser >= 1: " + qtdFatias);
+        if (nosVirtuais < 1) throw new IllegalArgumentException("nos virtuais deve ser >= 1: " + nosVirtuais);
+        this.nosVirtuais = nosVirtuais;
+        this.argsJvm = argsJvm;
+        this.argsWorker = argsWorker;
+        try {
+            for (int i = 0; i < qtdFatias; i++) lancar();
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+        achatarAnel();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int qtdFatias = 4;
+        int nosVirtuais = 128;
+        String dataset = new File("src/female_names.txt").exists() ? "src/female_names.txt" : "female_names.txt";
+        int adicionar = 1;
+        List<String> argsJvm = new ArrayList<>();
+        List<String> argsWorker = new ArrayList<>();
+
+        for (String a : args) {
+            if (a.startsWith("--fatias=")) qtdFatias = Integer.parseInt(valor(a));
+            else if (a.startsWith("--nos-virtuais=")) nosVirtuais = Integer.parseInt(valor(a));
+            else if (a.startsWith("--dataset=")) dataset = valor(a);
+            else if (a.startsWith("--adicionar=")) adicionar = Integer.parseInt(valor(a));
+            else if (a.startsWith("--xmx=")) argsJvm.add("-Xmx" + valor(a));
+            else if (a.startsWith("--hash=")) argsWorker.add(a);
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+
+        String[] chaves = Bench.carregarDataset(dataset);
+        String[] ausentes = new String[chaves.length];
+        for (int i = 0; i < chaves.length; i++) ausentes[i] = chaves[i] + '~';
+
+        try (ShardCoordinator c = new ShardCoordinator(qtdFatias, nosVirtuais, argsJvm, argsWorker)) {
+            long t0 = System.nanoTime();
+            c.insertAll(chaves);
+            long t1 = System.nanoTime();
+            System.out.println(chaves.length + " chaves em " + c.shardCount() + " fatias: insert "
+                    + opsPorSegundo(chaves.length, t1 - t0) + " ops/s");
+            verificar(c, chaves, ausentes);
+            imprimirFatias(c);
+
+            for (int k = 0; k < adicionar; k++) {
+                long m0 = System.nanoTime();
+                int movidas = c.addShard();
+                long m1 = System.nanoTime();
+                System.out.println("fatia " + (c.shardCount() - 1) + " adicionada: " + movidas + " chaves movidas (ideal ~"
+                        + chaves.length / c.shardCount() + ") em " + (m1 - m0) / 1_000_000 + " ms");
+                verificar(c, chaves, ausentes);
+                imprimirFatias(c);
+            }
+        }
+    }
+
+    private static void verificar(ShardCoordinator c, String[] chaves, String[] ausentes) throws IOException {
+        long t0 = System.nanoTime();
+        boolean[] presentes = c.containsAll(chaves);
+        boolean[] falsos = c.containsAll(ausentes);
+        long t1 = System.nanoTime();
+        for (int i = 0; i < chaves.length; i++) {
+            if (!presentes[i]) throw new IllegalStateException("chave perdida: " + chaves[i]);
+            if (falsos[i]) throw new IllegalStateException("chave fantasma: " + ausentes[i]);
+        }
+        System.out.println("contains: " + opsPorSegundo(2L * chaves.length, t1 - t0) + " ops/s (todas conferem)");
+    }
+
+    private static void imprimirFatias(ShardCoordinator c) throws IOException {
+        StringBuilder sb = new StringBuilder("chaves por fatia:");
+        for (int[] e : c.shardStats()) sb.append(' ').append(e[0]);
+        System.out.println(sb);
+    }
+
+    int shardCount() { return fatias.size(); }
+
+    void insert(String chave) throws IOException {
+        insertAll(new String[] { chave });
+    }
+
+    boolean contains(String chave) throws IOException {
+        return containsAll(new String[] { chave })[0];
+    }
+
+    void insertAll(String[] chaves) throws IOException {
+        int[][] particao = particionar(chaves);
+        pedirEmLotes(ShardWorker.INSERIR, chaves, particao[0], particao[1], null);
+    }
+
+    // resultado[i] = contains(chaves[i])
+    boolean[] containsAll(String[] chaves) throws IOException {
+        boolean[] resultado = new boolean[chaves.length];
+        int[][] particao = particionar(chaves);
+        pedirEmLotes(ShardWorker.CONTEM, chaves, particao[0], particao[1], resultado);
+        return resultado;
+    }
+
+    // por fatia: {tamanho, capacidade, cadeia máxima}
+    int[][] shardStats() throws IOException {
+        for (Fatia f : fatias) {
+            f.out.writeByte(ShardWorker.ESTATISTICAS);
+            f.out.flush();
+        }
+        int[][] r = new int[fatias.size()][];
+        for (int s = 0; s < fatias.size(); s++) {
+            DataInputStream in = fatias.get(s).in;
+            r[s] = new int[] { in.readInt(), in.readInt(), in.readInt() };
+        }
+        return r;
+    }
+
+    // lança mais um trabalhador e move para ele as chaves das faixas que os pontos dele tomam;
+    // devolve quantas chaves mudaram de fatia
+    int addShard() throws IOException {
+        TreeMap<Long, Integer> antigo = new TreeMap<>(anel);
+        int nova = lancar();
+
+        // faixas (anterior, ponto] de cada ponto novo, agrupadas pelo dono antigo do ponto
+        List<List<long[]>> faixasPorDono = new ArrayList<>();
+        for (int s = 0; s < nova; s++) faixasPorDono.add(new ArrayList<>());
+        for (Map.Entry<Long, Integer> e : anel.entrySet()) {
+            if (e.getValue() != nova) continue;
+            long ponto = e.getKey();
+            Long anterior = anel.lowerKey(ponto);
+            if (anterior == null) anterior = anel.lastKey();
+            Map.Entry<Long, Integer> sucessor = antigo.ceilingEntry(ponto);
+            if (sucessor == null) sucessor = antigo.firstEntry();
+            faixasPorDono.get(sucessor.getValue()).add(new long[] { anterior, ponto });
+        }
+
+        List<String> movidas = new ArrayList<>();
+        for (int s = 0; s < nova; s++) {
+            List<long[]> faixas = faixasPorDono.get(s);
+            if (faixas.isEmpty()) continue;
+            DataOutputStream out = fatias.get(s).out;
+            out.writeByte(ShardWorker.MOVER);
+            out.writeInt(faixas.size());
+            for (long[] f : faixas) {
+                out.writeLong(f[0]);
+                out.writeLong(f[1]);
+            }
+            out.flush();
+            DataInputStream in = fatias.get(s).in;
+            int m = in.readInt();
+            for (int i = 0; i < m; i++) movidas.add(ShardWorker.lerChaveString(in));
+        }
+        achatarAnel();
+
+        String[] chaves = movidas.toArray(new String[0]);
+        int[] ordem = new int[chaves.length];
+        for (int i = 0; i < ordem.length; i++) ordem[i] = i;
+        int[] inicio = new int[fatias.size() + 1];
+        for (int s = nova + 1; s < inicio.length; s++) inicio[s] = chaves.length; // tudo para a fatia nova
+        pedirEmLotes(ShardWorker.INSERIR, chaves, ordem, inicio, null);
+        return chaves.length;
+    }
+
+    // rodadas: um lote para cada fatia que ainda tem chaves, depois as respostas de todas
+    private void pedirEmLotes(byte op, String[] chaves, int[] ordem, int[] inicio, boolean[] resultado)
+            throws IOException {
+        int n = fatias.size();
+        for (int base = 0; ; base += LOTE) {
+            boolean algum = false;
+            for (int s = 0; s < n; s++) {
+                int de = inicio[s] + base;
+                int ate = Math.min(inicio[s + 1], de + LOTE);
+                if (de >= ate) continue;
+                algum = true;
+                DataOutputStream out = fatias.get(s).out;
+                out.writeByte(op);
+                out.writeInt(ate - de);
+                for (int p = de; p < ate; p++) escreverChave(out, chaves[ordem[p]]);
+                out.flush();
+            }
+            if (!algum) return;
+            for (int s = 0; s < n; s++) {
+                int de = inicio[s] + base;
+                int ate = Math.min(inicio[s + 1], de + LOTE);
+                if (de >= ate) continue;
+                DataInputStream in = fatias.get(s).in;
+                if (op == ShardWorker.CONTEM) {
+                    for (int p = de; p < ate; p += 8) {
+                        int bits = in.readUnsignedByte();
+                        for (int k = 0; k < 8 && p + k < ate; k++) resultado[ordem[p + k]] = (bits & (1 << k)) != 0;
+                    }
+                } else {
+                    in.readInt();
+                }
+            }
+        }
+    }
+
+    // {ordem, inicio}: as chaves da fatia s são chaves[ordem[inicio[s] .. inicio[s + 1])]
+    private int[][] particionar(String[] chaves) {
+        int n = chaves.length;
+        int[] dono = new int[n];
+        int[] inicio = new int[fatias.size() + 1];
+        for (int i = 0; i < n; i++) {
+            if (chaves[i] == null) throw new NullPointerException("chave nula");
+            dono[i] = dono(posicaoNoAnel(chaves[i]));
+            inicio[dono[i] + 1]++;
+        }
+        for (int s = 0; s < fatias.size(); s++) inicio[s + 1] = inicio[s + 1] + inicio[s];
+        int[] livre = Arrays.copyOf(inicio, fatias.size());
+        int[] ordem = new int[n];
+        for (int i = 0; i < n; i++) ordem[livre[dono[i]]++] = i;
+        return new int[][] { ordem, inicio };
+    }
+
+    private int dono(long posicao) {
+        int lo = 0, hi = pontos.length; // primeiro ponto >= posicao (ou volta ao início)
+        while (lo < hi) {
+            int meio = (lo + hi) >>> 1;
+            if (pontos[meio] < posicao) lo = meio + 1;
+            else hi = meio;
+        }
+        return donos[lo == pontos.length ? 0 : lo];
+    }
+
+    private void achatarAnel() {
+        pontos = new long[anel.size()];
+        donos = new int[anel.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> e : anel.entrySet()) {
+            pontos[i] = e.getKey();
+            donos[i] = e.getValue();
+            i++;
+        }
+    }
+
+    // sobe um ShardWorker, lê a porta que ele anuncia, conecta e põe os pontos dele no anel
+    private int lancar() throws IOException {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        cmd.addAll(argsJvm);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(ShardWorker.class.getName());
+        cmd.addAll(argsWorker);
+        Process p = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+        String linha = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8)).readLine();
+        if (linha == null || !linha.startsWith("PORTA ")) {
+            p.destroyForcibly();
+            throw new IOException("trabalhador nao anunciou a porta: " + linha);
+        }
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(linha.substring(6).trim()));
+        socket.setTcpNoDelay(true);
+        int id = fatias.size();
+        fatias.add(new Fatia(p, socket));
+        for (int v = 0; v < nosVirtuais; v++) anel.put(posicaoNoAnel("fatia-" + id + "#" + v), id);
+        return id;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Fatia f : fatias) {
+            try {
+                f.out.writeByte(ShardWorker.SAIR);
+                f.out.flush();
+            } catch (IOException e) {
+                // trabalhador já morto: só falta recolher o processo
+            }
+            f.socket.close();
+        }
+        for (Fatia f : fatias) {
+            try {
+                if (!f.processo.waitFor(5, TimeUnit.SECONDS)) f.processo.destroyForcibly();
+            } catch (InterruptedException e) {
+                f.processo.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        fatias.clear();
+    }
+
+    static long posicaoNoAnel(String chave) {
+        return ANEL.hash64(chave);
+    }
+
+    // faixas = pares (ini, fim]; ini >= fim = a faixa dá a volta no anel
+    static boolean naFaixa(long posicao, long[] faixas) {
+        for (int i = 0; i < faixas.length; i += 2) {
+            long ini = faixas[i], fim = faixas[i + 1];
+            if (ini < fim ? (posicao > ini && posicao <= fim) : (posicao > ini || posicao <= fim)) return true;
+        }
+        return false;
+    }
+
+    static void escreverChave(DataOutputStream out, String chave) throws IOException {
+        byte[] b = chave.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static long opsPorSegundo(long ops, long ns) {
+        return ns <= 0 ? 0 : Math.round(ops * 1e9 / ns);
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+}
@@ -0,0 +1,142 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Processo trabalhador do modo fatiado (ShardCoordinator): guarda uma fatia das chaves numa
+// tabela encadeada própria (heap e GC próprios) e atende o coordenador por um socket local.
+//
+// Uso (quem lança é o coordenador): java ShardWorker [--hash=fnv1a|djb2|...]
+// Imprime "PORTA <n>" na saída padrão, aceita uma única conexão em 127.0.0.1:n e termina
+// quando ela fecha (coordenador morto não deixa trabalhador órfão).
+//
+// Protocolo (DataInput/DataOutput, big-endian), um pedido de cada vez:
+//   'I' n chave*n        -> int: tamanho da fatia depois das inserções
+//   'C' n chave*n        -> (n + 7) / 8 bytes: bit i = contains(chave i)
+//   'M' r (ini, fim]*r   -> int m + chave*m: chaves cuja posição no anel cai numa das faixas;
+//                           elas saem desta fatia (a tabela é remontada sem elas)
+//   'S'                  -> int tamanho, int capacidade, int cadeia máxima
+//   'Q'                  -> encerra
+// chave = int comprimento + bytes UTF-8; faixa = dois longs (posições no anel)
+public final class ShardWorker {
+    static final byte INSERIR = 'I';
+    static final byte CONTEM = 'C';
+    static final byte MOVER = 'M';
+    static final byte ESTATISTICAS = 'S';
+    static final byte SAIR = 'Q';
+
+    private final HashFunction funcao; // null = HashTable1
+    private AbstractHashTable tabela;
+    private byte[] buf = new byte[256];
+
+    private ShardWorker(HashFunction funcao) {
+        this.funcao = funcao;
+        this.tabela = novaTabela();
+    }
+
+    public static void main(String[] args) throws IOException {
+        HashFunction f = null;
+        for (String a : args) {
+            if (a.startsWith("--hash=")) f = HashFunction.byName(a.substring("--hash=".length()));
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+        ShardWorker w = new ShardWorker(f);
+        try (ServerSocket servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println("PORTA " + servidor.getLocalPort());
+            System.out.flush();
+            try (Socket s = servidor.accept()) {
+                s.setTcpNoDelay(true);
+                w.atender(new DataInputStream(new BufferedInputStream(s.getInputStream(), 1 << 16)),
+                        new DataOutputStream(new BufferedOutputStream(s.getOutputStream(), 1 << 16)));
+            }
+        }
+    }
+
+    private AbstractHashTable novaTabela() {
+        return funcao == null ? new HashTable1(1024, 0.75) : new ChainedHashTable(1024, 0.75, funcao);
+    }
+
+    private void atender(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            int op;
+            try {
+                op = in.readByte();
+            } catch (EOFException e) {
+                return; // coordenador fechou a conexão
+            }
+            switch (op) {
+                case INSERIR: {
+                    int n = in.readInt();
+                    for (int i = 0; i < n; i++) {
+                        int len = lerChave(in);
+                        tabela.insert(buf, 0, len); // só cria a String se a chave for nova
+                    }
+                    out.writeInt(tabela.size());
+                    break;
+                }
+                case CONTEM: {
+                    int n = in.readInt();
+                    int bits = 0;
+                    for (int i = 0; i < n; i++) {
+                        int len = lerChave(in);
+                        if (tabela.contains(buf, 0, len)) bits = bits | (1 << (i & 7));
+                        if ((i & 7) == 7) {
+                            out.writeByte(bits);
+                            bits = 0;
+                        }
+                    }
+                    if ((n & 7) != 0) out.writeByte(bits);
+                    break;
+                }
+                case MOVER: {
+                    int r = in.readInt();
+                    long[] faixas = new long[2 * r];
+                    for (int i = 0; i < faixas.length; i++) faixas[i] = in.readLong();
+                    List<String> ficam = new ArrayList<>(tabela.size());
+                    List<String> saem = new ArrayList<>();
+                    tabela.forEachKey(k -> (ShardCoordinator.naFaixa(ShardCoordinator.posicaoNoAnel(k), faixas) ? saem : ficam).add(k));
+                    tabela = novaTabela();
+                    tabela.insertAll(ficam.toArray(new String[0]));
+                    out.writeInt(saem.size());
+                    for (String k : saem) ShardCoordinator.escreverChave(out, k);
+                    break;
+                }
+                case ESTATISTICAS:
+                    out.writeInt(tabela.size());
+                    out.writeInt(tabela.capacity());
+                    out.writeInt(tabela.maxChainLength());
+                    break;
+                case SAIR:
+                    return;
+                default:
+                    throw new IOException("pedido desconhecido: " + op);
+            }
+            out.flush();
+        }
+    }
+
+    // lê comprimento + bytes para buf; devolve o comprimento
+    private int lerChave(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) throw new IOException("comprimento de chave invalido: " + len);
+        if (buf.length < len) buf = new byte[Math.max(len, buf.length * 2)];
+        in.readFully(buf, 0, len);
+        return len;
+    }
+
+    static String lerChaveString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) throw new IOException("comprimento de chave invalido: " + len);
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+// SipHash-2-4 (Aumasson e Bernstein) sobre os bytes UTF-16LE da chave: função com chave
+// secreta de 128 bits, feita para tabelas hash expostas a entradas hostis. Sem conhecer
+// (k0, k1) não dá para montar chaves que caiam no mesmo balde; com chave aleatória por
+// tabela nem uma colisão observada numa tabela vale para outra.
+// Lê 4 chars (8 bytes) por palavra direto da String/CharSequence/char[], sem alocar.
+final class SipHash implements HashFunction {
+    private final long k0;
+    private final long k1;
+
+    SipHash(long k0, long k1) {
+        this.k0 = k0;
+        this.k1 = k1;
+    }
+
+    @Override
+    public int hash(String chave) {
+        return KeyBytes.fold(hash64(chave, null, 0, chave.length()));
+    }
+
+    @Override
+    public int hash(CharSequence chave) {
+        return KeyBytes.fold(hash64(chave, null, 0, chave.length()));
+    }
+
+    @Override
+    public int hash(char[] chars, int inicio, int tamanho) {
+        return KeyBytes.fold(hash64(null, chars, inicio, tamanho));
+    }
+
+    // os 64 bits completos (SelfCheck confere com os vetores de referência)
+    long hash64(String chave) {
+        return hash64(chave, null, 0, chave.length());
+    }
+
+    // chave derivada da semente (fmix64 para a segunda metade)
+    @Override
+    public HashFunction withSeed(long semente) {
+        long x = semente ^ (semente >>> 33);
+        x = x * 0xFF51AFD7ED558CCDL;
+        x = x ^ (x >>> 33);
+        return new SipHash(semente, x * 0xC4CEB9FE1A85EC53L);
+    }
+
+    @Override
+    public String name() { return "siphash"; }
+
+    // texto em s (CharSequence) ou em c[inicio, inicio + n); n em chars
+    private long hash64(CharSequence s, char[] c, int inicio, int n) {
+        long v0 = k0 ^ 0x736F6D6570736575L;
+        long v1 = k1 ^ 0x646F72616E646F6DL;
+        long v2 = k0 ^ 0x6C7967656E657261L;
+        long v3 = k1 ^ 0x7465646279746573L;
+
+        int palavras = n >>> 2; // palavras cheias de 8 bytes
+        // a última "palavra" é a cauda (0-3 chars) com o comprimento em bytes no byte alto
+        for (int w = 0; w <= palavras; w++) {
+            long m;
+            int p = w << 2;
+            if (w < palavras) {
+                m = charEm(s, c, inicio, p)
+                        | ((long) charEm(s, c, inicio, p + 1) << 16)
+                        | ((long) charEm(s, c, inicio, p + 2) << 32)
+                        | ((long) charEm(s, c, inicio, p + 3) << 48);
+            } else {
+                m = ((long) (n << 1)) << 56;
+                for (int k = 0; p + k < n; k++) m |= (long) charEm(s, c, inicio, p + k) << (16 * k);
+            }
+            v3 ^= m;
+            for (int r = 0; r < 2; r++) { // SipRound
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+
+        v2 ^= 0xFF;
+        for (int r = 0; r < 4; r++) { // SipRound
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private static char charEm(CharSequence s, char[] c, int inicio, int i) {
+        return s != null ? s.charAt(i) : c[inicio + i];
+    }
+}
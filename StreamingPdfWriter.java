@@ -0,0 +1,360 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+// Gera o mesmo PDF do PdfReportWriter em fluxo: cada linha recebida passa pela formatação
+// de seções, quebra e paginação na hora, e cada página (stream de conteúdo + objeto /Page)
+// vai para o arquivo assim que enche, por um FileChannel com buffer. Na memória ficam só
+// a página corrente e os offsets do xref (um long por objeto).
+//
+// O total de páginas do rodapé ("Pagina i/N") só é conhecido no fim, então o "N" é um Form
+// XObject (/Tot) referenciado por todas as páginas e escrito no close().
+//
+// Uso: try (StreamingPdfWriter w = new StreamingPdfWriter(caminho, titulo, true)) { w.append(...); }
+final class StreamingPdfWriter implements Appendable, Closeable {
+    private static final int PAGE_WIDTH = 595;
+    private static final int PAGE_HEIGHT = 842;
+    private static final int LEFT = 25;
+    private static final int RIGHT = 72;
+    private static final int TOP_Y = 800;
+    private static final int BOTTOM = 72;
+
+    private static final String BASE_FONT = "/Courier";
+    private static final int FONT_SIZE_TITLE = 14;
+    private static final int FONT_SIZE_TEXT  = 10;
+    private static final int LEADING = 13;
+    private static final double LARGURA_CHAR = FONT_SIZE_TEXT * 0.6;
+
+    private static final int COLS_WRAP = 80;
+    private static final int LINES_PER_PAGE = Math.max(10, (TOP_Y - BOTTOM) / LEADING);
+
+    // objetos com id fixo, escritos no close()
+    private static final int ID_CATALOG = 1;
+    private static final int ID_PAGES = 2;
+    private static final int ID_FONT = 3;
+    private static final int ID_TOTAL = 4;
+
+    private final FileChannel canal;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private final boolean comprimir;
+    private long posicao;          // bytes já entregues ao buffer (= offset no arquivo)
+    private long[] offsets = new long[64];
+    private int ultimoId = ID_TOTAL;
+    private int[] idPaginas = new int[16];
+    private int totalPaginas;
+
+    private final StringBuilder linhaAtual = new StringBuilder(128); // texto ainda sem '\n'
+    private final String[] pagina = new String[LINES_PER_PAGE];
+    private int linhasNaPagina;
+    private boolean dentroTabela;
+    private boolean fechado;
+
+    StreamingPdfWriter(String caminho, String titulo, boolean comprimir) throws IOException {
+        this.canal = FileChannel.open(Paths.get(caminho), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.comprimir = comprimir;
+        escrever("%PDF-1.4\n");
+        line(titulo == null ? "" : titulo);
+        line("");
+    }
+
+    // ===== entrada de texto =====
+
+    // uma linha lógica do relatório (sem '\n')
+    void line(String s) throws IOException {
+        formatar(s == null ? "" : s);
+    }
+
+    @Override
+    public StreamingPdfWriter append(CharSequence csq) throws IOException {
+        if (csq == null) csq = "null";
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public StreamingPdfWriter append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) csq = "null";
+        for (int i = start; i < end; i++) append(csq.charAt(i));
+        return this;
+    }
+
+    @Override
+    public StreamingPdfWriter append(char c) throws IOException {
+        if (c == '\n') {
+            line(linhaAtual.toString());
+            linhaAtual.setLength(0);
+        } else if (c != '\r') {
+            linhaAtual.append(c);
+        }
+        return this;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fechado) return;
+        fechado = true;
+        try {
+            if (linhaAtual.length() > 0) {
+                line(linhaAtual.toString());
+                linhaAtual.setLength(0);
+            }
+            if (linhasNaPagina > 0 || totalPaginas == 0) emitirPagina();
+            finalizar();
+        } finally {
+            canal.close();
+        }
+    }
+
+    // ===== formatação de seções (mesmas regras de antes, linha a linha) =====
+
+    private void formatar(String s) throws IOException {
+        String t = s.trim();
+
+        if (t.startsWith("==== Tabela Hash ")) {
+            quebrar("");
+            quebrar("TABELA HASH " + numeroDaTabela(t));
+            quebrar("");
+            quebrar("MÉTRICAS PRINCIPAIS");
+            dentroTabela = true;
+            return;
+        }
+        if (t.startsWith("Distribuicao (#chaves por posicao):")) {
+            quebrar("");
+            quebrar("DISTRIBUIÇÃO DE CHAVES");
+            return;
+        }
+        if (t.startsWith("Colisoes por posicao (tamanhoDaCadeia-1, minimo 0):")) {
+            quebrar("");
+            quebrar("COLISÕES POR POSIÇÃO");
+            return;
+        }
+        if (t.startsWith("====") && !t.startsWith("==== Tabela")) return;
+        if (dentroTabela && t.length() == 0) {
+            quebrar("");
+            return;
+        }
+        quebrar(s);
+    }
+
+    // "==== Tabela Hash 3 (enderecamento aberto...) ====" -> "3"
+    private static String numeroDaTabela(String t) {
+        int ini = "==== Tabela Hash ".length();
+        int fim = ini;
+        while (fim < t.length() && t.charAt(fim) != ' ') fim++;
+        return t.substring(ini, fim);
+    }
+
+    // quebra em COLS_WRAP colunas, preferindo espaço/tab
+    private void quebrar(String s) throws IOException {
+        if (s.isEmpty()) {
+            paginar("");
+            return;
+        }
+        int pos = 0;
+        while (pos < s.length()) {
+            int limit = Math.min(pos + COLS_WRAP, s.length());
+            int cut = lastSpaceBefore(s, limit);
+            if (cut <= pos) cut = limit;
+            paginar(s.substring(pos, cut).trim());
+            pos = cut;
+        }
+    }
+
+    private static int lastSpaceBefore(String s, int limitExclusive) {
+        int p = Math.min(limitExclusive, s.length());
+        int space = s.lastIndexOf(' ', p - 1);
+        int tab = s.lastIndexOf('\t', p - 1);
+        return Math.max(space, tab);
+    }
+
+    private void paginar(String s) throws IOException {
+        pagina[linhasNaPagina++] = s;
+        if (linhasNaPagina == LINES_PER_PAGE) emitirPagina();
+    }
+
+    // ===== saída =====
+
+    private void emitirPagina() throws IOException {
+        int numero = totalPaginas + 1;
+        byte[] conteudo = construirConteudo(numero);
+        int idStream = novoId();
+        if (comprimir) {
+            byte[] z = deflate(conteudo);
+            iniciarObjeto(idStream);
+            escrever("<< /Length " + z.length + " /Filter /FlateDecode >>\nstream\n");
+            escrever(z);
+        } else {
+            iniciarObjeto(idStream);
+            escrever("<< /Length " + conteudo.length + " >>\nstream\n");
+            escrever(conteudo);
+        }
+        escrever("\nendstream\nendobj\n");
+
+        int idPagina = novoId();
+        iniciarObjeto(idPagina);
+        escrever("<< /Type /Page /Parent " + ID_PAGES + " 0 R " +
+                "/MediaBox [0 0 " + PAGE_WIDTH + " " + PAGE_HEIGHT + "] " +
+                "/Resources << /Font << /F1 " + ID_FONT + " 0 R >> /XObject << /Tot " + ID_TOTAL + " 0 R >> >> " +
+                "/Contents " + idStream + " 0 R >>\nendobj\n");
+
+        if (totalPaginas == idPaginas.length) idPaginas = Arrays.copyOf(idPaginas, idPaginas.length * 2);
+        idPaginas[totalPaginas++] = idPagina;
+        Arrays.fill(pagina, 0, linhasNaPagina, null);
+        linhasNaPagina = 0;
+    }
+
+    // a primeira linha de cada página sai centralizada no corpo de título (como antes)
+    private byte[] construirConteudo(int numero) {
+        StringBuilder sb = new StringBuilder(8192);
+
+        sb.append("BT\n");
+        sb.append("/F1 ").append(FONT_SIZE_TEXT).append(" Tf\n");
+        sb.append(LEADING).append(" TL\n");
+        sb.append(LEFT).append(" ").append(TOP_Y).append(" Td\n");
+
+        int ini = 0;
+        if (linhasNaPagina > 0) {
+            String first = pagina[0];
+            sb.append("/F1 ").append(FONT_SIZE_TITLE).append(" Tf\n");
+            int usableWidth = PAGE_WIDTH - LEFT - RIGHT;
+            int colsPerLine = (int) Math.floor((double) usableWidth / LARGURA_CHAR);
+            if (colsPerLine <= 0) colsPerLine = COLS_WRAP;
+            int centerCol = colsPerLine / 2;
+            int titleCol = Math.max(0, centerCol - first.length() / 2);
+            int shiftX = (int) Math.round(titleCol * LARGURA_CHAR);
+            sb.append(shiftX).append(" 0 Td\n");
+            appendTj(sb, first);
+            sb.append("T*\nT*\n");
+            sb.append(-shiftX).append(" 0 Td\n");
+            sb.append("/F1 ").append(FONT_SIZE_TEXT).append(" Tf\n");
+            ini = 1;
+        }
+        for (int i = ini; i < linhasNaPagina; i++) {
+            String s = pagina[i];
+            if (s.isEmpty()) sb.append("T*\n");
+            else { appendTj(sb, s); sb.append("T*\n"); }
+        }
+        sb.append("ET\n");
+
+        // rodapé: "Pagina i/" aqui, o total vem do XObject /Tot
+        String footer = "Pagina " + numero + "/";
+        int footerY = BOTTOM - 20; if (footerY < 20) footerY = 20;
+        int larguraEstimada = footer.length() + Integer.toString(numero).length();
+        int footerX = PAGE_WIDTH - RIGHT - (int) Math.round(larguraEstimada * LARGURA_CHAR);
+        if (footerX < LEFT) footerX = LEFT;
+        sb.append("BT\n");
+        sb.append("/F1 ").append(FONT_SIZE_TEXT).append(" Tf\n");
+        sb.append(footerX).append(" ").append(footerY).append(" Td\n");
+        appendTj(sb, footer);
+        sb.append("ET\n");
+        int totalX = footerX + (int) Math.round(footer.length() * LARGURA_CHAR);
+        sb.append("q 1 0 0 1 ").append(totalX).append(" ").append(footerY).append(" cm /Tot Do Q\n");
+
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static void appendTj(StringBuilder sb, String s) {
+        sb.append('(');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') sb.append('\\');
+            sb.append(c);
+        }
+        sb.append(") Tj\n");
+    }
+
+    private void finalizar() throws IOException {
+        byte[] total = ("BT /F1 " + FONT_SIZE_TEXT + " Tf 0 0 Td (" + totalPaginas + ") Tj ET\n")
+                .getBytes(StandardCharsets.ISO_8859_1);
+        iniciarObjeto(ID_TOTAL);
+        escrever("<< /Type /XObject /Subtype /Form /BBox [0 0 " + (PAGE_WIDTH - LEFT) + " " + LEADING + "] " +
+                "/Resources << /Font << /F1 " + ID_FONT + " 0 R >> >> /Length " + total.length + " >>\nstream\n");
+        escrever(total);
+        escrever("\nendstream\nendobj\n");
+
+        iniciarObjeto(ID_FONT);
+        escrever("<< /Type /Font /Subtype /Type1 /BaseFont " + BASE_FONT + " /Encoding /WinAnsiEncoding >>\nendobj\n");
+
+        iniciarObjeto(ID_PAGES);
+        escrever("<< /Type /Pages /Count " + totalPaginas + " /Kids [");
+        StringBuilder kids = new StringBuilder(64);
+        for (int i = 0; i < totalPaginas; i++) {
+            kids.setLength(0);
+            kids.append(' ').append(idPaginas[i]).append(" 0 R");
+            escrever(kids.toString());
+        }
+        escrever(" ] >>\nendobj\n");
+
+        iniciarObjeto(ID_CATALOG);
+        escrever("<< /Type /Catalog /Pages " + ID_PAGES + " 0 R >>\nendobj\n");
+
+        long xrefStart = posicao;
+        escrever("xref\n");
+        escrever("0 " + (ultimoId + 1) + "\n");
+        escrever("0000000000 65535 f \n");
+        for (int i = 1; i <= ultimoId; i++) {
+            String p = Long.toString(offsets[i]);
+            escrever("0000000000".substring(p.length()) + p + " 00000 n \n");
+        }
+        escrever("trailer << /Size " + (ultimoId + 1) + " /Root " + ID_CATALOG + " 0 R >>\n");
+        escrever("startxref\n");
+        escrever(xrefStart + "\n");
+        escrever("%%EOF");
+        descarregar();
+    }
+
+    private int novoId() {
+        ultimoId++;
+        if (ultimoId >= offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        return ultimoId;
+    }
+
+    private void iniciarObjeto(int id) throws IOException {
+        offsets[id] = posicao;
+        escrever(id + " 0 obj\n");
+    }
+
+    private void escrever(String s) throws IOException {
+        escrever(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private void escrever(byte[] b) throws IOException {
+        int off = 0;
+        while (off < b.length) {
+            if (!buffer.hasRemaining()) descarregar();
+            int n = Math.min(buffer.remaining(), b.length - off);
+            buffer.put(b, off, n);
+            off += n;
+        }
+        posicao += b.length;
+    }
+
+    private void descarregar() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) canal.write(buffer);
+        buffer.clear();
+    }
+
+    private static byte[] deflate(byte[] dados) {
+        Deflater d = new Deflater(Deflater.BEST_SPEED);
+        try {
+            d.setInput(dados);
+            d.finish();
+            byte[] saida = new byte[Math.max(64, dados.length / 2)];
+            int n = 0;
+            while (!d.finished()) {
+                if (n == saida.length) saida = Arrays.copyOf(saida, saida.length * 2);
+                n += d.deflate(saida, n, saida.length - n);
+            }
+            return Arrays.copyOf(saida, n);
+        } finally {
+            d.end();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+// wyhash (versão final 4) sobre os bytes UTF-16LE da chave: multiplicação 64x64->128
+// de pares de palavras de 8 bytes, dobrando as metades alta e baixa.
+final class WyHash implements HashFunction {
+    private static final long S0 = 0xA0761D6478BD642FL;
+    private static final long S1 = 0xE7037ED1A0B428DBL;
+    private static final long S2 = 0x8EBC6AF09C88C6E3L;
+    private static final long S3 = 0x589965CC75374CC3L;
+
+    private final long semente;
+
+    WyHash(long semente) { this.semente = semente; }
+
+    @Override
+    public int hash(String chave) {
+        return KeyBytes.fold(hash64(chave));
+    }
+
+    long hash64(String chave) {
+        int len = KeyBytes.length(chave);
+        long seed = semente ^ mix(semente ^ S0, S1);
+        long a, b;
+
+        if (len <= 16) {
+            if (len >= 4) {
+                int meio = (len >>> 3) << 2;
+                a = (KeyBytes.int32(chave, 0) << 32) | KeyBytes.int32(chave, meio);
+                b = (KeyBytes.int32(chave, len - 4) << 32) | KeyBytes.int32(chave, len - 4 - meio);
+            } else if (len > 0) {
+                a = ((long) KeyBytes.byteAt(chave, 0) << 16)
+                        | ((long) KeyBytes.byteAt(chave, len >>> 1) << 8)
+                        | KeyBytes.byteAt(chave, len - 1);
+                b = 0;
+            } else {
+                a = 0;
+                b = 0;
+            }
+        } else {
+            int p = 0;
+            int i = len;
+            if (i > 48) {
+                long see1 = seed;
+                long see2 = seed;
+                do {
+                    seed = mix(KeyBytes.long64(chave, p) ^ S1, KeyBytes.long64(chave, p + 8) ^ seed);
+                    see1 = mix(KeyBytes.long64(chave, p + 16) ^ S2, KeyBytes.long64(chave, p + 24) ^ see1);
+                    see2 = mix(KeyBytes.long64(chave, p + 32) ^ S3, KeyBytes.long64(chave, p + 40) ^ see2);
+                    p += 48;
+                    i -= 48;
+                } while (i > 48);
+                seed ^= see1 ^ see2;
+            }
+            while (i > 16) {
+                seed = mix(KeyBytes.long64(chave, p) ^ S1, KeyBytes.long64(chave, p + 8) ^ seed);
+                i -= 16;
+                p += 16;
+            }
+            a = KeyBytes.long64(chave, p + i - 16);
+            b = KeyBytes.long64(chave, p + i - 8);
+        }
+
+        a ^= S1;
+        b ^= seed;
+        long lo = a * b;
+        long hi = multiplicaAltoSemSinal(a, b);
+        return mix(lo ^ S0 ^ len, hi ^ S1);
+    }
+
+    // metade baixa XOR metade alta do produto de 128 bits
+    private static long mix(long a, long b) {
+        return (a * b) ^ multiplicaAltoSemSinal(a, b);
+    }
+
+    private static long multiplicaAltoSemSinal(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    @Override
+    public HashFunction withSeed(long semente) { return new WyHash(semente); }
+
+    @Override
+    public String name() { return "wyhash"; }
+}
@@ -0,0 +1,86 @@
+// xxHash64 sobre os bytes UTF-16LE da chave: 4 acumuladores de 8 bytes por passo
+// (blocos de 32 bytes), depois caudas de 8/4/1 bytes e avalanche final.
+final class XxHash64 implements HashFunction {
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private final long semente;
+
+    XxHash64(long semente) { this.semente = semente; }
+
+    @Override
+    public int hash(String chave) {
+        return KeyBytes.fold(hash64(chave));
+    }
+
+    long hash64(String chave) {
+        int len = KeyBytes.length(chave);
+        int p = 0;
+        long h;
+
+        if (len >= 32) {
+            long v1 = semente + P1 + P2;
+            long v2 = semente + P2;
+            long v3 = semente;
+            long v4 = semente - P1;
+            do {
+                v1 = rodada(v1, KeyBytes.long64(chave, p));
+                v2 = rodada(v2, KeyBytes.long64(chave, p + 8));
+                v3 = rodada(v3, KeyBytes.long64(chave, p + 16));
+                v4 = rodada(v4, KeyBytes.long64(chave, p + 24));
+                p += 32;
+            } while (p <= len - 32);
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = juntar(h, v1);
+            h = juntar(h, v2);
+            h = juntar(h, v3);
+            h = juntar(h, v4);
+        } else {
+            h = semente + P5;
+        }
+
+        h += len;
+        while (p + 8 <= len) {
+            h ^= rodada(0, KeyBytes.long64(chave, p));
+            h = Long.rotateLeft(h, 27) * P1 + P4;
+            p += 8;
+        }
+        if (p + 4 <= len) {
+            h ^= KeyBytes.int32(chave, p) * P1;
+            h = Long.rotateLeft(h, 23) * P2 + P3;
+            p += 4;
+        }
+        while (p < len) {
+            h ^= KeyBytes.byteAt(chave, p) * P5;
+            h = Long.rotateLeft(h, 11) * P1;
+            p++;
+        }
+
+        h ^= h >>> 33;
+        h *= P2;
+        h ^= h >>> 29;
+        h *= P3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long rodada(long acc, long entrada) {
+        acc += entrada * P2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * P1;
+    }
+
+    private static long juntar(long acc, long v) {
+        acc ^= rodada(0, v);
+        return acc * P1 + P4;
+    }
+
+    @Override
+    public HashFunction withSeed(long semente) { return new XxHash64(semente); }
+
+    @Override
+    public String name() { return "xxhash64"; }
+}
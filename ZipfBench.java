@@ -0,0 +1,117 @@
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Consultas com popularidade Zipf sobre o dataset (por padrão female_names.txt): compara as
+// políticas de cadeia (ChainPolicy) em HashTable1/2, com nós comparados por contains (média
+// do histograma de sondagens) e vazão (mediana de --repeticoes passadas, sem instrumentação).
+// O índice ordenado dos baldes fica desligado (o padrão), senão as cadeias longas nem seriam
+// percorridas; a linha "ORDENADO" é a ordem estática com o índice ligado, como referência.
+//
+// Uso: java ZipfBench [--dataset=female_names.txt] [--consultas=2000000] [--s=1.0]
+//          [--capacidades=32,auto] [--repeticoes=5] [--csv=zipf.csv]
+//
+// capacidade "auto" = modo redimensionável (inicial 32, fator de carga 0.75)
+public final class ZipfBench {
+    private static final long SEMENTE = 0x21FFL;
+    private static volatile long sumidouro;
+
+    private ZipfBench() {}
+
+    public static void main(String[] args) throws Exception {
+        String dataset = new File("src/female_names.txt").exists() ? "src/female_names.txt" : "female_names.txt";
+        int consultas = 2_000_000;
+        double s = 1.0;
+        String[] capacidades = { "32", "auto" };
+        int repeticoes = 5;
+        String csv = "zipf.csv";
+
+        for (String a : args) {
+            if (a.startsWith("--dataset=")) dataset = valor(a);
+            else if (a.startsWith("--consultas=")) consultas = Integer.parseInt(valor(a));
+            else if (a.startsWith("--s=")) s = Double.parseDouble(valor(a));
+            else if (a.startsWith("--capacidades=")) capacidades = valor(a).split(",");
+            else if (a.startsWith("--repeticoes=")) repeticoes = Integer.parseInt(valor(a));
+            else if (a.startsWith("--csv=")) csv = valor(a);
+            else throw new IllegalArgumentException("opcao desconhecida: " + a);
+        }
+        if (repeticoes < 1) throw new IllegalArgumentException("repeticoes deve ser >= 1: " + repeticoes);
+
+        String[] chaves = Bench.carregarDataset(dataset);
+        String[] carga = KeyGenerators.zipfLookups(chaves, consultas, s, SEMENTE);
+        String[] politicas = { "STATIC", "MOVE_TO_FRONT", "TRANSPOSE", "COUNT", "ORDENADO" };
+
+        // aquecimento: todas as combinações com uma fatia da carga, para o JIT
+        String[] fatia = Arrays.copyOf(carga, Math.min(carga.length, 200_000));
+        for (String cap : capacidades) {
+            for (int tipo = 1; tipo <= 2; tipo++) {
+                for (String p : politicas) medirVazao(montar(tipo, cap, p, chaves), fatia);
+            }
+        }
+
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(csv), StandardCharsets.UTF_8)) {
+            String cabecalho = "dataset,capacidade,tabela,politica,s,consultas,nos_por_contains,ops_s";
+            out.write(cabecalho);
+            out.write('\n');
+            System.out.println(cabecalho);
+
+            for (String cap : capacidades) {
+                for (int tipo = 1; tipo <= 2; tipo++) {
+                    for (String p : politicas) {
+                        AbstractHashTable t = montar(tipo, cap, p, chaves);
+                        // passada instrumentada: conta os nós e já deixa as cadeias no regime
+                        t.setInstrumentation(true);
+                        medirVazao(t, carga);
+                        double nos = t.probesPerContains().mean();
+                        t.setInstrumentation(false);
+
+                        double[] vazao = new double[repeticoes];
+                        for (int r = 0; r < repeticoes; r++) vazao[r] = medirVazao(t, carga);
+
+                        String linha = dataset + "," + cap + ",HashTable" + tipo + "," + p + "," + s + ","
+                                + consultas + "," + Math.round(nos * 100.0) / 100.0 + "," + Math.round(mediana(vazao));
+                        out.write(linha);
+                        out.write('\n');
+                        System.out.println(linha);
+                    }
+                }
+            }
+        }
+        System.out.println("CSV gerado em: " + new File(csv).getAbsolutePath());
+    }
+
+    private static AbstractHashTable montar(int tipo, String cap, String politica, String[] chaves) {
+        AbstractHashTable t;
+        if (cap.equals("auto")) t = tipo == 1 ? new HashTable1(32, 0.75) : new HashTable2(32, 0.75);
+        else t = tipo == 1 ? new HashTable1(Integer.parseInt(cap)) : new HashTable2(Integer.parseInt(cap));
+        if (politica.equals("ORDENADO")) t.setSortedBucketThreshold(AbstractHashTable.LIMIAR_ORDENAR_PADRAO);
+        else t.setChainPolicy(ChainPolicy.valueOf(politica));
+        t.insertAll(chaves);
+        t.completeResize();
+        return t;
+    }
+
+    // contains/s sobre toda a carga
+    private static double medirVazao(AbstractHashTable t, String[] carga) {
+        long achou = 0;
+        long t0 = System.nanoTime();
+        for (int i = 0; i < carga.length; i++) if (t.contains(carga[i])) achou++;
+        long t1 = System.nanoTime();
+        sumidouro += achou;
+        return t1 == t0 ? 0.0 : carga.length * 1e9 / (t1 - t0);
+    }
+
+    private static double mediana(double[] v) {
+        double[] c = v.clone();
+        Arrays.sort(c);
+        int m = c.length / 2;
+        return c.length % 2 == 1 ? c[m] : (c[m - 1] + c[m]) / 2.0;
+    }
+
+    private static String valor(String opcao) {
+        return opcao.substring(opcao.indexOf('=') + 1);
+    }
+}